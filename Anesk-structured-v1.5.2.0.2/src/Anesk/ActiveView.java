@@ -0,0 +1,94 @@
+package Anesk;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.function.Consumer;
+
+/**
+ * Active-render surface: a Canvas with a page-flipped BufferStrategy.
+ * - Frames are driven by their own TickScheduler at the display refresh
+ *   rate, not by RepaintManager; each one renders into the back buffer and
+ *   show()s it (in full-screen exclusive mode that is a real flip)
+ * - Tries 3 pages, then 2; contents lost/restored are redrawn in place
+ * - Not focusable, so keys keep going to the panel's bindings
+ */
+final class ActiveView extends Canvas {
+  private static final long serialVersionUID = 1L;
+
+  private final Consumer<Graphics2D> painter;
+  private final long periodNs;
+  private final TickScheduler frames = new TickScheduler("Anesk-render");
+  private final Object lock = new Object(); // guards bs against removeNotify
+  private BufferStrategy bs;
+
+  ActiveView(int hz, Consumer<Graphics2D> painter) {
+    this.painter = painter;
+    this.periodNs = 1_000_000_000L / Math.max(1, hz);
+    setIgnoreRepaint(true);
+    setFocusable(false);
+    setBackground(Config.BG);
+  }
+
+  /** Frame-to-frame intervals and pacing error of the render loop. */
+  TickScheduler frames() {
+    return frames;
+  }
+
+  @Override
+  public void addNotify() {
+    super.addNotify();
+    synchronized (lock) {
+      bs = createStrategy();
+    }
+    frames.start(() -> periodNs, this::frame);
+  }
+
+  @Override
+  public void removeNotify() {
+    frames.stop();
+    synchronized (lock) {
+      if (bs != null)
+        bs.dispose();
+      bs = null;
+    }
+    super.removeNotify();
+  }
+
+  private BufferStrategy createStrategy() {
+    BufferCapabilities flip = new BufferCapabilities(
+        new ImageCapabilities(true), new ImageCapabilities(true), BufferCapabilities.FlipContents.UNDEFINED);
+    for (int pages = 3; pages >= 2; pages--) {
+      try {
+        createBufferStrategy(pages, flip);
+        return getBufferStrategy();
+      } catch (AWTException ignore) {
+        // no accelerated flipping with this many pages; try fewer
+      }
+    }
+    createBufferStrategy(2); // blits if flipping is unavailable
+    return getBufferStrategy();
+  }
+
+  // One frame on the render thread; returning false ends the loop.
+  private boolean frame() {
+    synchronized (lock) {
+      if (bs == null)
+        return false;
+      if (getWidth() <= 0 || getHeight() <= 0)
+        return true;
+      do {
+        do {
+          Graphics2D g = (Graphics2D) bs.getDrawGraphics();
+          try {
+            painter.accept(g);
+          } finally {
+            g.dispose();
+          }
+        } while (bs.contentsRestored());
+        bs.show();
+      } while (bs.contentsLost());
+    }
+    Toolkit.getDefaultToolkit().sync();
+    return true;
+  }
+}
@@ -3,8 +3,8 @@ package Anesk;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.RoundRectangle2D;
-import java.util.Random;
 import java.util.prefs.Preferences;
 import static Anesk.Controls.KeyAction.*;
 
@@ -13,7 +13,7 @@ import static Anesk.Controls.KeyAction.*;
  * Start screen, SFX, wrap walls, Labyrinth mode, bonus shard.
  */
 @SuppressWarnings("unused")
-public class Anesk extends JPanel implements ActionListener {
+public class Anesk extends JPanel implements ActionListener, Simulator.Listener {
 
   /* ------------------------ Launcher ------------------------ */
   // Anesk.java (inside class Anesk)
@@ -65,39 +65,34 @@ public class Anesk extends JPanel implements ActionListener {
   private static final String PREF_LEVEL = "anesksnake.level";
   private static final String PREF_XP = "anesksnake.xp";
 
-  // Directions / state / mode
-  private enum Dir {
-    LEFT, RIGHT, UP, DOWN
-  }
-
+  // State / mode (directions live in GameState)
   private enum State {
     START, PLAYING, PAUSED, OVER
   }
 
-  private enum Mode {
-    CLASSIC, LABYRINTH
-  }
+  /** How frames reach the screen; picked at launch (-Danesk.render or --render=). */
+  public enum RenderMode {
+    PASSIVE, // JPanel + RepaintManager (default, always works)
+    ACTIVE, // Canvas + BufferStrategy, own frame thread
+    FULLSCREEN; // ACTIVE in a full-screen exclusive window
 
-  // Timer speed control
-  private static final int TICK_START = 110;
-  private static final int TICK_FLOOR = 55;
-  private static final int TICK_STEP = 4;
+    public static RenderMode fromProperty() {
+      String v = System.getProperty("anesk.render", "passive").trim().toUpperCase(java.util.Locale.ROOT);
+      try {
+        return valueOf(v);
+      } catch (IllegalArgumentException e) {
+        return PASSIVE;
+      }
+    }
+  }
 
-  // XP per pickup
-  private static final int XP_APPLE = 10;
-  private static final int XP_RARE = 30;
+  private enum Mode {
+    CLASSIC("Classic"), LABYRINTH("Labyrinth"), ARENA("Mega Arena");
 
-  // --- Score Multiplier (streak) ---
-  private static final int MULT_MAX_TIER = 5; // x1..x5
-  private static final int MULT_METER_FULL_MS = 6000; // time to gain/lose one tier
-  private static final int MULT_GAIN_ON_APPLE_MS = 35000; // meter added per apple
+    final String label;
 
-  private void normalizeProgress() {
-    // If saved XP overshoots current requirement, carry it forward
-    int guard = 0;
-    while (xp >= currentXpNeeded() && guard++ < 10000) {
-      xp -= currentXpNeeded();
-      level++;
+    Mode(String label) {
+      this.label = label;
     }
   }
 
@@ -106,94 +101,158 @@ public class Anesk extends JPanel implements ActionListener {
   private final Preferences prefs = Preferences.userNodeForPackage(Anesk.class);
   private final Skins.Manager skins = new Skins.Manager(prefs);
 
-  // Board / snake buffers
-  private final int maxLen = Config.COLS * Config.ROWS;
-  private final int[] sx = new int[maxLen];
-  private final int[] sy = new int[maxLen];
-  private boolean[][] wall = new boolean[Config.COLS][Config.ROWS];
+  // Rules & data (Swing-free; this panel is only view + controller)
+  private final GameState game = new GameState(System.nanoTime());
+  private final Simulator sim = new Simulator(game);
 
-  // Loop & speed
-  private javax.swing.Timer timer;
-  private int currentTickDelay = TICK_START;
-  private int speedIndex = Config.START_SPEED_INDEX;
+  // Loop: ticks on their own deadline thread at game.tickMs, frames at display refresh.
+  // Everything that touches game/sim holds the game monitor.
+  private final TickScheduler ticker = new TickScheduler("Anesk-tick");
+  private javax.swing.Timer timer; // frame timer (runs while PLAYING)
+  private ActiveView activeView; // non-null in active render modes
+  private volatile boolean turbo; // dev: 1 ms ticks
 
-  // Snake & apple
-  private int length;
-  private int appleX, appleY;
+  // Side effects published by sim callbacks, drained on the EDT each frame
+  private final GameEvents events = new GameEvents(256);
+  private final Unlocks unlocks = Unlocks.load("/assets/unlocks.txt"); // game monitor
 
-  // Score multiplier state
-  private int multTier = 1; // 1..MULT_MAX_TIER
-  private int multMeterMs = 0; // 0..MULT_METER_FULL_MS-1 (progress within current tier)
-  private long multLastMs = System.currentTimeMillis();
-
-  // Power-ups
-  private final PowerUps.Inventory inventory = new PowerUps.Inventory();
-  private final PowerUps.Effects effects = new PowerUps.Effects();
-
-  private int score;
-  private int highScore = 0;
+  private volatile int highScore = 0;
 
   // Run state
-  private boolean running;
-  private boolean paused;
-  private Dir dir = Dir.RIGHT;
-  private State state = State.START;
-  private Mode mode = Mode.CLASSIC;
-
-  // RNG & visuals
-  private final Random rng = new Random();
-  private long headFlashUntil = 0L;
+  private volatile boolean running;
+  private volatile boolean paused;
+  private final Controls.InputQueue input = new Controls.InputQueue(); // presses, one applied per tick
+  private volatile State state = State.START;
+  private volatile Mode mode = Mode.CLASSIC; // EDT writes, active render thread reads
+
+  // Visuals: render time is read once per frame from timeSource into frameClock
+  private GameClock timeSource = GameClock.SYSTEM;
+  private final GameClock.Virtual frameClock = new GameClock.Virtual(System.nanoTime());
+  private volatile long headFlashUntil = 0L; // frameClock time
+
+  // Board view, recomputed each paint in board px (device px at viewScale):
+  // tile size, origin of cell (0,0), panel size, visible cells
+  // [viewX0, viewX1) x [viewY0, viewY1), and lerpCell() output
+  private int viewTile = Config.TILE, viewOx, viewOy, boardW, boardH;
+  private int viewX0, viewY0, viewX1, viewY1;
+  private float lerpX, lerpY;
+
+  // Settled view: the panel size and device scale that tile size, atlases and
+  // cached layers are built for. Resizes and scale changes re-settle once
+  // they have been quiet for RESIZE_SETTLE_MS; until then only the origin moves.
+  private static final int RESIZE_SETTLE_MS = 200;
+  private volatile int settledW, settledH;
+  private GraphicsConfiguration settledGc; // EDT only
+  private volatile double viewScale = 1; // device px per panel px
+  private volatile double paintScale = 1; // transform scale of the latest frame
+  private final javax.swing.Timer resizeSettle = new javax.swing.Timer(RESIZE_SETTLE_MS, e -> settleView());
+  private final BoardLayer boardLayer = new BoardLayer(); // bg, grid, walls
+  private final RasterBoard raster = new RasterBoard(); // software path for huge boards
+  private boolean rasterFrame; // this paint goes through raster
+  private int atlasTile = Config.TILE; // tile size of the atlases in use
+
+  // HUD: cached fonts and labels, re-rendered only when their values change
+  private final Hud hud = new Hud();
+  private final Hud.Text hudTop = new Hud.Text(null, Config.TEXT);
+  private String hudTopMap; // map name hudTop shows (not part of its numeric key)
+  private final Hud.Text hudSkin = new Hud.Text(Hud.MONO_12, Color.WHITE);
+  private final Hud.Text hudLevel = new Hud.Text(Hud.MONO_BOLD_18, Color.WHITE);
+  private final Hud.Text hudXp = new Hud.Text(Hud.MONO_12, Color.WHITE);
+  private final Hud.Text hudMult = new Hud.Text(Hud.MONO_BOLD_14, Color.WHITE);
+  private final Hud.Text toastText = new Hud.Text(null, Color.WHITE);
+  private static final Color HUD_BAR = new Color(0, 0, 0, 140);
+  private static final Color HUD_FRAME = new Color(255, 255, 255, 60);
+  private static final Color HUD_MULT = new Color(180, 240, 120, 160);
+  private static final Color TOAST_BG = new Color(20, 22, 34, 200);
+  private static final Color OVERLAY_DIM = new Color(0, 0, 0, 120);
+  private static final Color[] XP_FILL = new Color[255 / 3 + 1]; // by level-up glow / 3
+  private static final BasicStroke TOAST_RIM = new BasicStroke(2f);
+
+  static {
+    for (int i = 0; i < XP_FILL.length; i++)
+      XP_FILL[i] = new Color(127, 240, 255, 120 + i);
+  }
 
-  // Bonus shard
-  private boolean bonusActive = false;
-  private int bonusX, bonusY, bonusTicks = 0;
+  // Dirty-region frames: this and the last frame's damage, the merged paint
+  // list, and the view/HUD the last frame saw. Rects come from a pool and the
+  // lists swap, so a steady frame allocates nothing
+  private final int[] changedCells = new int[64];
+  private java.util.ArrayList<Rectangle> dirty = new java.util.ArrayList<>();
+  private java.util.ArrayList<Rectangle> lastDirty = new java.util.ArrayList<>();
+  private final java.util.ArrayList<Rectangle> dirtyPaint = new java.util.ArrayList<>();
+  private final java.util.ArrayList<Rectangle> dirtySpare = new java.util.ArrayList<>();
+  private int dirtyOx = Integer.MIN_VALUE, dirtyOy, dirtyTile, dirtyW, dirtyH;
+  private double dirtyScale;
+  private long dirtyTicks, topHudSig, bottomHudSig;
 
   // Toasts
-  private final java.util.ArrayDeque<Toast> toastQ = new java.util.ArrayDeque<>();
-  private Toast activeToast;
+  private final java.util.Queue<Toast> toastQ = new java.util.concurrent.ConcurrentLinkedQueue<>();
+  private volatile Toast activeToast; // owned by the painting thread, peeked at by the EDT
 
-  // Level / XP
-  private int level = 1;
-  private int xp = 0;
-  // private int xpNeeded; // recomputed each level
-  private int flashTicks = 0;
-
-  // --- XP requirement formula (tweak as you like)
-  private int xpForLevel(int lvl) {
-    // Linear growth: L1=100, L2=120, L3=140, ...
-    return 100 + Math.max(0, (lvl - 1)) * 20;
-  }
-
-  // Current requirement for the active level
-  private int currentXpNeeded() {
-    return xpForLevel(level);
-  }
+  // Level-up / unlock HUD glow
+  private volatile int flashTicks = 0;
 
-  // Start screen ticker
+  // Start screen ticker, and the cached card it animates over: only the
+  // preview snake, title pulse and bobbing apple are drawn per tick
   private javax.swing.Timer startTicker = new javax.swing.Timer(33, this::onStartTick);
+  private static final int START_MARGIN = 2; // card outline spills over its rect
+  private static final Color START_VIGNETTE = new Color(0, 0, 0, 110);
+  private static final Color PREVIEW_TRACK = new Color(255, 255, 255, 22);
+  private java.awt.image.BufferedImage startCard, startText;
+  private double startScale; // device scale the card layers were rendered at
+  private String startMapLine;
+  private long startKeyA, startKeyB;
+  private String startMap; // map and font the card layers were rendered with
+  private Font startFont;
+  private final Rectangle startBounds = new Rectangle(), startTrack = new Rectangle();
+  private final Point startPoint = new Point();
+  private final Hud.Text startTitle = new Hud.Text(null, new Color(230, 230, 255));
+  private final Hud.Text startGlow = new Hud.Text(null, new Color(184, 132, 255, 233)); // 3 passes at 140
 
   // DEV
-  private long bootNanos = System.nanoTime();
-  private boolean devInvincible = false;
+  private long bootNanos = frameClock.nanos();
   private static final boolean DEV = Boolean.parseBoolean(System.getProperty("anesk.dev", "false"))
       || "1".equals(System.getenv("ANESK_DEV"));
+  private final PerfOverlay perf = new PerfOverlay(); // DEV only, toggled in dev tools
+  private boolean perfFrameOnPaint; // EDT: the next paintComponent() closes the perf frame
   private static final float stroke = 0;
 
   /* ---------------------- Construction ---------------------- */
   public Anesk() {
+    this(RenderMode.fromProperty());
+  }
+
+  public Anesk(RenderMode render) {
     Maps.Layout L = Maps.random(); // or Maps.get("lab-01")
     if (L != null) {
       // Example: convert walls into your game’s obstacle list
       for (int r = 0; r < L.rows; r++) {
         for (int c = 0; c < L.cols; c++) {
-          if (L.wall[r][c]) {
+          if (L.wall.get(c, r)) {
             // translate (c, r) into world coordinates and add a wall tile/segment
           }
         }
       }
     }
     setPreferredSize(new Dimension(Config.COLS * Config.TILE, Config.ROWS * Config.TILE));
+    if (render != RenderMode.PASSIVE) {
+      // the canvas covers the panel; the panel keeps focus and key bindings
+      activeView = new ActiveView(displayHz(), g -> {
+        renderFrame(g);
+        perf.frame();
+      });
+      setLayout(new BorderLayout());
+      add(activeView, BorderLayout.CENTER);
+    }
     setBackground(Config.BG);
+    resizeSettle.setRepeats(false);
+    addComponentListener(new ComponentAdapter() {
+      @Override
+      public void componentResized(ComponentEvent e) {
+        resizeSettle.restart();
+      }
+    });
+    addPropertyChangeListener("graphicsConfiguration", e -> resizeSettle.restart()); // moved to another screen
     setFocusable(true);
     requestFocusInWindow();
     setFocusTraversalKeysEnabled(false);
@@ -203,14 +262,20 @@ public class Anesk extends JPanel implements ActionListener {
     Skins.loadAll();
     Labyrinth.preload();
 
-    timer = new javax.swing.Timer(TICK_START, this);
-    timer.start();
+    Skins.setClock(frameClock);
+    sim.setListener(this);
+    events.subscribe(this::persistEvent); // before UI: unlock labels read the saved flags
+    events.subscribe(this::playEventSound);
+    events.subscribe(this::showEvent);
+    unlocks.rearm(skins::isUnlocked);
+    timer = new javax.swing.Timer(Math.max(1, 1000 / displayHz()), this);
 
     highScore = prefs.getInt("anesksnake.high", 0);
     loadProgress();
     bindKeys();
 
-    startTicker.start();
+    if (activeView == null) // active modes redraw the start screen on the render thread
+      startTicker.start();
     resetToStartScreen();
   }
 
@@ -225,10 +290,10 @@ public class Anesk extends JPanel implements ActionListener {
   private void bindKeys() {
     var A = Controls.actions();
 
-    A.put(Controls.KeyAction.LEFT, () -> turn(Dir.LEFT));
-    A.put(Controls.KeyAction.RIGHT, () -> turn(Dir.RIGHT));
-    A.put(Controls.KeyAction.UP, () -> turn(Dir.UP));
-    A.put(Controls.KeyAction.DOWN, () -> turn(Dir.DOWN));
+    A.put(Controls.KeyAction.LEFT, () -> turn(GameState.Dir.LEFT));
+    A.put(Controls.KeyAction.RIGHT, () -> turn(GameState.Dir.RIGHT));
+    A.put(Controls.KeyAction.UP, () -> turn(GameState.Dir.UP));
+    A.put(Controls.KeyAction.DOWN, () -> turn(GameState.Dir.DOWN));
 
     // SPACE / ENTER : start or pause/resume
     A.put(Controls.KeyAction.START_OR_PAUSE, () -> {
@@ -240,13 +305,13 @@ public class Anesk extends JPanel implements ActionListener {
         case PLAYING -> {
           state = State.PAUSED;
           paused = true;
-          timer.stop();
+          stopLoop();
           Sfx.play(Sfx.Id.PAUSE);
         }
         case PAUSED -> {
           state = State.PLAYING;
           paused = false;
-          timer.start();
+          resumeLoop();
           Sfx.play(Sfx.Id.RESUME);
         }
       }
@@ -258,12 +323,12 @@ public class Anesk extends JPanel implements ActionListener {
       if (state == State.PLAYING) {
         state = State.PAUSED;
         paused = true;
-        timer.stop();
+        stopLoop();
         Sfx.play(Sfx.Id.PAUSE);
       } else if (state == State.PAUSED) {
         state = State.PLAYING;
         paused = false;
-        timer.start();
+        resumeLoop();
         Sfx.play(Sfx.Id.RESUME);
       }
       repaint();
@@ -288,7 +353,8 @@ public class Anesk extends JPanel implements ActionListener {
     // TAB : mode toggle (only on START/PAUSED)
     A.put(Controls.KeyAction.MODE_TOGGLE, () -> {
       if (state == State.START || state == State.PAUSED) {
-        mode = (mode == Mode.CLASSIC ? Mode.LABYRINTH : Mode.CLASSIC);
+        mode = Mode.values()[(mode.ordinal() + 1) % Mode.values().length];
+        boardLayer.invalidate();
         repaint();
       }
     });
@@ -333,6 +399,7 @@ public class Anesk extends JPanel implements ActionListener {
       String id = Maps.next();
       mode = Mode.LABYRINTH; // ensure labyrinth preview
       System.out.println("Map -> " + id);
+      boardLayer.invalidate();
       repaint();
     });
 
@@ -343,6 +410,7 @@ public class Anesk extends JPanel implements ActionListener {
       String id = Maps.prev(); // implement this if not present
       mode = Mode.LABYRINTH;
       System.out.println("Map <- " + id);
+      boardLayer.invalidate();
       repaint();
     });
 
@@ -363,13 +431,13 @@ public class Anesk extends JPanel implements ActionListener {
       case PAUSED -> {
         paused = false;
         state = State.PLAYING;
-        timer.start();
+        resumeLoop();
         Sfx.play(Sfx.Id.RESUME);
         repaint();
       }
       case PLAYING -> {
-        if (!timer.isRunning())
-          timer.start();
+        if (!ticker.isRunning())
+          resumeLoop();
       }
     }
   }
@@ -378,19 +446,18 @@ public class Anesk extends JPanel implements ActionListener {
     if (state == State.PLAYING) {
       paused = true;
       state = State.PAUSED;
-      timer.stop();
+      stopLoop();
       Sfx.play(Sfx.Id.PAUSE);
       repaint();
     }
   }
 
   public void hubReset() {
-    if (timer != null)
-      timer.stop();
+    stopLoop();
     resetToStartScreen();
-    speedIndex = Config.START_SPEED_INDEX; // optional HUD reset
-    if (timer != null)
-      timer.setDelay(currentTickDelay);
+    synchronized (game) {
+      game.speedIndex = Config.START_SPEED_INDEX; // optional HUD reset
+    }
     flashTicks = 0;
     repaint();
     requestFocusInWindow();
@@ -408,16 +475,24 @@ public class Anesk extends JPanel implements ActionListener {
     hubReset();
   }
 
+  /** Where render time comes from (e.g. a Virtual clock for scripted or recorded runs). */
+  public void setTimeSource(GameClock c) {
+    timeSource = (c != null) ? c : GameClock.SYSTEM;
+    frameClock.sync(timeSource);
+  }
+
   /* --------------------- Persistence / Reset ---------------- */
   public void saveProgress() {
-    prefs.putInt(PREF_LEVEL, level);
-    prefs.putInt(PREF_XP, xp);
+    prefs.putInt(PREF_LEVEL, game.level);
+    prefs.putInt(PREF_XP, game.xp);
   }
 
   private void loadProgress() {
-    level = Math.max(1, prefs.getInt(PREF_LEVEL, 1));
-    xp = Math.max(0, prefs.getInt(PREF_XP, 0));
-    normalizeProgress(); // ensure xp < requirement; auto-level if needed
+    synchronized (game) {
+      game.level = Math.max(1, prefs.getInt(PREF_LEVEL, 1));
+      game.xp = Math.max(0, prefs.getInt(PREF_XP, 0));
+      sim.normalizeProgress(); // ensure xp < requirement; auto-level if needed
+    }
   }
 
   private void confirmResetProgress() {
@@ -472,18 +547,24 @@ public class Anesk extends JPanel implements ActionListener {
     } catch (Exception ignore) {
     }
 
-    level = 1;
-    xp = 0;
+    synchronized (game) {
+      game.level = 1;
+      game.xp = 0;
+    }
+    events.clear();
     highScore = 0;
 
     if (wipeSkins) {
       skins.load(); // reload after wipe
       skins.set(Skins.Skin.MAIN);
     }
+    synchronized (game) {
+      unlocks.rearm(skins::isUnlocked);
+    }
 
-    currentTickDelay = TICK_START;
-    if (timer != null)
-      timer.setDelay(currentTickDelay);
+    synchronized (game) {
+      game.tickMs = Simulator.TICK_START;
+    }
     flashTicks = 0;
 
     resetToStartScreen();
@@ -492,102 +573,65 @@ public class Anesk extends JPanel implements ActionListener {
 
   /* -------------------------- Game model -------------------- */
   private void changeSpeed(int delta) {
-    int old = speedIndex;
-    speedIndex = Math.max(0, Math.min(Config.SPEEDS_MS.length - 1, speedIndex + delta));
-    int base = Config.SPEEDS_MS[speedIndex];
-    currentTickDelay = Math.min(currentTickDelay, base);
-    timer.setDelay(currentTickDelay);
-    if (old != speedIndex) {
-      Sfx.play(Sfx.Id.SPEED);
-      repaint();
+    synchronized (game) {
+      sim.changeSpeed(delta);
     }
+    drainEvents();
   }
 
-  private void turn(Dir d) {
+  private void turn(GameState.Dir d) {
     if (state != State.PLAYING)
       return;
-    if ((d == Dir.LEFT && dir != Dir.RIGHT) ||
-        (d == Dir.RIGHT && dir != Dir.LEFT) ||
-        (d == Dir.UP && dir != Dir.DOWN) ||
-        (d == Dir.DOWN && dir != Dir.UP)) {
-      dir = d;
+    if (input.offer(d))
       Sfx.play(Sfx.Id.TURN);
-    }
   }
 
   private void resetToStartScreen() {
     running = false;
     paused = false;
     state = State.START;
-    score = 0;
-    length = 1;
-    dir = Dir.RIGHT;
-    Labyrinth.clear(wall, Config.COLS, Config.ROWS);
-    sx[0] = Config.COLS / 2;
-    sy[0] = Config.ROWS / 2;
-    spawnApple();
-    bonusActive = false;
-    bonusTicks = 0;
+    synchronized (game) {
+      sim.reset();
+      input.clear(game.dir);
+    }
   }
 
   private void startGame() {
-    // no need for xpNeeded anymore
-    score = 0;
-    highScore = Math.max(highScore, score);
-    // walls
-    Labyrinth.clear(wall, Config.COLS, Config.ROWS);
-
-    // reset basics
-    length = 4;
-    score = 0;
+    highScore = Math.max(highScore, game.score);
 
+    LevelMap map = null;
     if (mode == Mode.LABYRINTH) {
       Maps.ensureActive();
-      String id = Maps.activeName();
-      loadLabyrinthLevelFromTxt("/assets/labs/" + id + ".txt");
-
-    } else {
-      // Classic: center start
-      dir = Dir.RIGHT;
-      int cx = Config.COLS / 2, cy = Config.ROWS / 2;
-      if (wall[cx][cy]) {
-        cx = 2;
-        cy = 2;
-      }
-      for (int i = 0; i < length; i++) {
-        sx[i] = cx - i;
-        sy[i] = cy;
-      }
+      map = LevelMap.load("/assets/labs/" + Maps.activeName() + ".txt");
+    }
+    stopLoop();
+    synchronized (game) {
+      if (mode == Mode.ARENA)
+        sim.start(null, Config.ARENA_COLS, Config.ARENA_ROWS);
+      else
+        sim.start(map, Config.COLS, Config.ROWS); // a map brings its own size
+      input.clear(game.dir);
+      unlocks.newRun();
     }
 
-    // common init
-    spawnApple();
-    bonusActive = false;
-    bonusTicks = 0;
     running = true;
     paused = false;
     headFlashUntil = 0;
     state = State.PLAYING;
 
-    speedIndex = Config.START_SPEED_INDEX;
-    timer.setDelay(Config.SPEEDS_MS[speedIndex]);
-
-    timer.setInitialDelay(0); // no wait before first tick
-    timer.restart(); // restarts immediately with these settings
-
-    multTier = 1;
-    multMeterMs = 0;
-    multLastMs = System.currentTimeMillis();
+    resumeLoop(); // first tick runs immediately
 
     repaint();
   }
 
   private void gameOver() {
+    if (!game.isDead())
+      return; // a restart beat this call to the EDT
     running = false;
     state = State.OVER;
-    timer.stop();
-    if (score > highScore) {
-      highScore = score;
+    stopLoop();
+    if (game.score > highScore) {
+      highScore = game.score;
       prefs.putInt("anesksnake.high", highScore);
     }
     Sfx.play(Sfx.Id.GAMEOVER);
@@ -595,252 +639,337 @@ public class Anesk extends JPanel implements ActionListener {
   }
 
   private void goToStartScreen() {
-    if (timer != null && timer.isRunning()) {
-      timer.stop();
-    }
+    stopLoop();
     paused = false;
     state = State.START;
     // mode = Mode.CLASSIC; // optional
     repaint();
   }
 
-  /* --------------------------- Tick ------------------------- */
-  @Override
-  public void actionPerformed(ActionEvent e) {
-    if (!running || paused || state != State.PLAYING)
-      return;
-    multiplierTick();
+  /* --------------------------- Loop ------------------------- */
+  /** (Re)start ticking from now; time spent stopped is not replayed. */
+  private void resumeLoop() {
+    ticker.start(this::tickPeriodNs, this::tickOnce);
+    timer.restart();
+  }
 
-    step();
-    repaint();
+  private void stopLoop() {
+    ticker.stop();
+    if (timer != null)
+      timer.stop();
+    SwingUtilities.invokeLater(this::drainEvents); // whatever the last ticks left behind
+  }
+
+  private long tickPeriodNs() {
+    return turbo ? TickScheduler.TURBO_PERIOD_NS : game.tickMs * 1_000_000L;
   }
 
-  private void step() {
-    for (int i = length - 1; i > 0; i--) {
-      sx[i] = sx[i - 1];
-      sy[i] = sy[i - 1];
+  // One tick, on the scheduler thread. Returning false ends the loop.
+  private boolean tickOnce() {
+    synchronized (game) {
+      // a worker stopped (restart, pause) while this one waited for the lock
+      if (!ticker.isCurrentWorker() || !running || paused || state != State.PLAYING)
+        return false;
+      long t0 = perf.begin();
+      boolean alive = sim.tick(input.poll());
+      perf.endTick(t0);
+      if (alive)
+        return true;
+      if (!events.publish(GameEvents.Type.DEATH, game.score))
+        SwingUtilities.invokeLater(this::gameOver); // ring full: don't lose the transition
     }
-    switch (dir) {
-      case LEFT -> sx[0]--;
-      case RIGHT -> sx[0]++;
-      case UP -> sy[0]--;
-      case DOWN -> sy[0]++;
+    SwingUtilities.invokeLater(this::drainEvents);
+    return false;
+  }
+
+  /** 0..1 progress from the previous tick to the next one, for interpolation. */
+  private float renderAlpha() {
+    if (state != State.PLAYING || !ticker.isRunning())
+      return 1f;
+    float a = (System.nanoTime() - ticker.lastTickNanos()) / (float) tickPeriodNs();
+    return Math.max(0f, Math.min(1f, a));
+  }
+
+  private static int displayHz() {
+    try {
+      int hz = GraphicsEnvironment.getLocalGraphicsEnvironment()
+          .getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+      return (hz == DisplayMode.REFRESH_RATE_UNKNOWN) ? 60 : hz;
+    } catch (Exception e) {
+      return 60;
     }
+  }
 
-    if (Config.WRAP_WALLS) {
-      sx[0] = (sx[0] + Config.COLS) % Config.COLS;
-      sy[0] = (sy[0] + Config.ROWS) % Config.ROWS;
-    } else {
-      if (sx[0] < 0 || sx[0] >= Config.COLS || sy[0] < 0 || sy[0] >= Config.ROWS) {
-        gameOver();
-        return;
-      }
+  // One frame: ticks run elsewhere; this drains their events and repaints.
+  @Override
+  public void actionPerformed(ActionEvent e) {
+    drainEvents();
+    if (activeView == null && running && !paused && state == State.PLAYING) {
+      repaintDirty();
+      if (!perfFrameOnPaint) // painted synchronously; else paintComponent() closes it
+        perf.frame();
     }
+  }
 
-    if (wall[sx[0]][sy[0]]) {
-      gameOver();
+  /* ---------------------- Dirty regions ------------------- */
+  private static final int TOP_HUD_H = 24, BOTTOM_HUD_H = 48, MAX_DIRTY_RECTS = 6;
+
+  /**
+   * Repaint only what can have changed since the last frame: cells the engine
+   * touched, the sliding head and tail pieces, the (animated) pickups, the
+   * whole snake when its colours shift, HUD strips whose values changed, and
+   * last frame's rects so anything that moved away gets erased. Falls back to
+   * a full repaint when the view moved or the damage is spread too wide.
+   */
+  private void repaintDirty() {
+    final int W = getWidth(), H = getHeight();
+    release(dirty);
+    boolean full;
+    synchronized (game) {
+      layoutView(renderAlpha());
+      int n = game.drainChanged(changedCells);
+      full = n < 0 || viewOx != dirtyOx || viewOy != dirtyOy || viewTile != dirtyTile
+          || W != dirtyW || H != dirtyH || viewScale != dirtyScale;
+      if (!full) {
+        for (int i = 0; i < n; i++)
+          dirtyCell(game.cellX(changedCells[i]), game.cellY(changedCells[i]));
+        int head = game.headCell(), last = game.length - 1;
+        dirtyPiece(last > 0 ? game.segment(1) : head, head);
+        if (last > 0)
+          dirtyPiece(game.prevTail, game.segment(last));
+        if (game.appleX >= 0)
+          dirtyCell(game.appleX, game.appleY);
+        if (game.bonusActive)
+          dirtyCell(game.bonusX, game.bonusY);
+        Skins.Skin skin = skins.get();
+        if (Skins.Manager.bodyAnimated(skin) || (Skins.Manager.bodyBanded(skin) && game.ticks != dirtyTicks))
+          dirtySnake();
+      }
+      dirtyTicks = game.ticks;
+
+      long top = ((((long) game.score * 31 + highScore) * 31 + game.speedIndex) * 31
+          + (Sfx.isMuted() ? 1 : 0)) * 31 + mode.ordinal() * 7L + Maps.activeName().hashCode();
+      long bottom = ((((long) game.level * 31 + game.xp) * 31 + game.multTier) * 31
+          + game.multMeterMs) * 31 + flashTicks * 7L + skins.get().ordinal();
+      if (top != topHudSig)
+        dirtyRect(0, 0, W, TOP_HUD_H);
+      if (bottom != bottomHudSig)
+        dirtyRect(0, H - BOTTOM_HUD_H, W, BOTTOM_HUD_H);
+      topHudSig = top;
+      bottomHudSig = bottom;
+    }
+    if (activeToast != null || !toastQ.isEmpty())
+      dirtyRect(0, 48, W, 56);
+    if (perf.isOn())
+      perf.bounds(W, dirtyRect(0, 0, 0, 0));
+
+    dirtyOx = viewOx;
+    dirtyOy = viewOy;
+    dirtyTile = viewTile;
+    dirtyW = W;
+    dirtyH = H;
+    dirtyScale = viewScale;
+
+    // paint this frame's rects and last frame's (to erase what moved away)
+    for (Rectangle r : dirty)
+      dirtyPaint.add(spare(r));
+    for (Rectangle r : lastDirty)
+      dirtyPaint.add(spare(r));
+    release(lastDirty);
+    java.util.ArrayList<Rectangle> swap = lastDirty;
+    lastDirty = dirty;
+    dirty = swap;
+    mergeDirty();
+    if (full || dirtyPaint.size() > MAX_DIRTY_RECTS) {
+      release(dirtyPaint);
+      repaint();
+      perfFrameOnPaint = perf.isOn();
       return;
     }
+    for (Rectangle r : dirtyPaint)
+      paintImmediately(r);
+    release(dirtyPaint);
+  }
 
-    for (int i = 1; i < length; i++)
-      if (sx[0] == sx[i] && sy[0] == sy[i]) {
-        gameOver();
-        return;
-      }
+  // A pooled rect, added to this frame's damage.
+  private Rectangle dirtyRect(int x, int y, int w, int h) {
+    int n = dirtySpare.size();
+    Rectangle r = n > 0 ? dirtySpare.remove(n - 1) : new Rectangle();
+    r.setBounds(x, y, w, h);
+    dirty.add(r);
+    return r;
+  }
 
-    if (sx[0] == appleX && sy[0] == appleY) {
-      int gained = 10 * multTier;
-      score += 10;
-      addXp(XP_APPLE);
-      multiplierOnApple();
-      if (length < maxLen) {
-        sx[length] = sx[length - 1];
-        sy[length] = sy[length - 1];
-        length++;
-      }
-      spawnApple();
-      Sfx.play(Sfx.Id.PICKUP);
-      headFlashUntil = System.nanoTime() + 580_000_000L;
-      maybeUnlockSkins();
+  // A pooled copy of r.
+  private Rectangle spare(Rectangle r) {
+    int n = dirtySpare.size();
+    Rectangle c = n > 0 ? dirtySpare.remove(n - 1) : new Rectangle();
+    c.setBounds(r);
+    return c;
+  }
+
+  private void release(java.util.ArrayList<Rectangle> rects) {
+    dirtySpare.addAll(rects);
+    rects.clear();
+  }
+
+  private void dirtyCell(float x, float y) {
+    final int t = viewTile;
+    dirtyBoard(viewOx + Math.round(x * t) - 1, viewOy + Math.round(y * t) - 1, t + 2, t + 2);
+  }
 
-      int apples = (score / 10);
-      if (apples % 5 == 0 && speedIndex < Config.SPEEDS_MS.length - 1)
-        changeSpeed(+1);
+  // A sliding piece covers both ends of its path (which may lie off-board after a wrap).
+  private void dirtyPiece(int from, int to) {
+    lerpCell(from, to, 0f);
+    dirtyCell(lerpX, lerpY);
+    lerpCell(from, to, 1f);
+    dirtyCell(lerpX, lerpY);
+  }
 
-      if (!bonusActive && rng.nextDouble() < Config.BONUS_SPAWN_CHANCE)
-        spawnBonus();
+  private void dirtySnake() {
+    int x0 = Integer.MAX_VALUE, y0 = Integer.MAX_VALUE, x1 = -1, y1 = -1;
+    for (int i = 0; i < game.length; i++) {
+      int c = game.segment(i), x = game.cellX(c), y = game.cellY(c);
+      x0 = Math.min(x0, x);
+      y0 = Math.min(y0, y);
+      x1 = Math.max(x1, x);
+      y1 = Math.max(y1, y);
     }
+    if (x1 < 0)
+      return;
+    final int t = viewTile;
+    dirtyBoard(viewOx + x0 * t - 1, viewOy + y0 * t - 1, (x1 - x0 + 1) * t + 2, (y1 - y0 + 1) * t + 2);
+  }
 
-    if (bonusActive) {
-      if (sx[0] == bonusX && sy[0] == bonusY) {
-        score += Config.BONUS_POINTS;
-        addXp(XP_RARE);
-        for (int g = 0; g < 2 && length < maxLen; g++) {
-          sx[length] = sx[length - 1];
-          sy[length] = sy[length - 1];
-          length++;
-        }
-        bonusActive = false;
-        Sfx.play(Sfx.Id.BONUS);
-      } else {
-        if (--bonusTicks <= 0)
-          bonusActive = false;
-      }
-      maybeUnlockSkins();
+  // A board-px rect, as panel px rounded outwards.
+  private void dirtyBoard(int x, int y, int w, int h) {
+    final double s = viewScale;
+    if (s == 1) {
+      dirtyRect(x, y, w, h);
+      return;
     }
+    int x0 = (int) Math.floor(x / s), y0 = (int) Math.floor(y / s);
+    dirtyRect(x0, y0, (int) Math.ceil((x + w) / s) - x0, (int) Math.ceil((y + h) / s) - y0);
+  }
 
-    if (!devInvincible) {
-      if (wall[sx[0]][sy[0]]) {
-        gameOver();
-        return;
-      }
-      for (int i = 1; i < length; i++) {
-        if (sx[0] == sx[i] && sy[0] == sy[i]) {
-          gameOver();
-          return;
+  // Union overlapping/touching paint rects in place until none overlap.
+  private void mergeDirty() {
+    final java.util.ArrayList<Rectangle> p = dirtyPaint;
+    for (boolean merged = true; merged;) {
+      merged = false;
+      for (int i = 0; i < p.size() && !merged; i++) {
+        Rectangle a = p.get(i);
+        for (int j = i + 1; j < p.size(); j++) {
+          Rectangle b = p.get(j);
+          if (a.x <= b.x + b.width && b.x <= a.x + a.width && a.y <= b.y + b.height && b.y <= a.y + a.height) {
+            a.add(b);
+            dirtySpare.add(p.remove(j));
+            merged = true;
+            break;
+          }
         }
       }
     }
   }
 
-  /* ------------------------- Power-ups ---------------------- */
-  private void onPickupPowerUp(PowerUps.Type t) {
-    if (!inventory.add(t)) {
-      score += PowerUps.OVERFLOW_SCORE; // full: convert to score
-      // Sfx.play(Sfx.Id.CASH); // optional
-    } else {
-      // Sfx.play(Sfx.Id.POWERUP); // optional
+  /* -------------------- Simulator callbacks ----------------- */
+  // These run inside sim calls, i.e. on the tick thread (or the EDT) with the
+  // game monitor held: publish only, the work happens in drainEvents().
+  @Override
+  public void onApple() {
+    events.publish(GameEvents.Type.APPLE, game.score);
+  }
+
+  @Override
+  public void onBonusSpawned() {
+    events.publish(GameEvents.Type.BONUS_SPAWN);
+  }
+
+  @Override
+  public void onBonus() {
+    events.publish(GameEvents.Type.BONUS, game.score);
+  }
+
+  @Override
+  public void onLevelUp() {
+    events.publish(GameEvents.Type.LEVEL_UP, game.level);
+  }
+
+  @Override
+  public void onSpeedChanged() {
+    events.publish(GameEvents.Type.SPEED, game.speedIndex);
+  }
+
+  @Override
+  public void onXpChanged() {
+    events.publish(GameEvents.Type.XP, game.level, game.xp);
+  }
+
+  @Override
+  public void onProgress() {
+    maybeUnlockSkins();
+  }
+
+  @Override
+  public void onBoardFull() {
+    events.publish(GameEvents.Type.BOARD_FULL);
+  }
+
+  /* ---------------------- Event subscribers ----------------- */
+  /** Run pending side effects; EDT only. */
+  private void drainEvents() {
+    events.drain();
+  }
+
+  private void playEventSound(GameEvents.Type t, int a, int b) {
+    switch (t) {
+      case APPLE -> Sfx.play(Sfx.Id.PICKUP);
+      case BONUS_SPAWN, SPEED -> Sfx.play(Sfx.Id.SPEED);
+      case BONUS -> Sfx.play(Sfx.Id.BONUS);
+      case LEVEL_UP, UNLOCK -> Sfx.play(Sfx.Id.LEVELUP);
+      default -> {
+      }
     }
   }
 
-  private void useSelectedPowerUp() {
-    PowerUps.Type t = inventory.useSelected();
-    if (t == null)
-      return;
+  private void persistEvent(GameEvents.Type t, int a, int b) {
     switch (t) {
-      case MULLIGAN -> {
-        // Mulligan is auto-use; treat manual use as no-op (re-add to inventory)
-        inventory.add(PowerUps.Type.MULLIGAN);
+      case XP -> {
+        prefs.putInt(PREF_LEVEL, a);
+        prefs.putInt(PREF_XP, b);
       }
-      case PHASE_WALLS -> {
-        effects.activate(PowerUps.Type.PHASE_WALLS);
-        // Sfx.play(Sfx.Id.PHASE);
+      case UNLOCK -> skins.unlock(Skins.Skin.values()[a]);
+      default -> {
       }
     }
   }
 
-  private void cyclePowerUpNext() {
-    inventory.cycleNext();
-  }
-
-  private void cyclePowerUpPrev() {
-    inventory.cyclePrev();
-  }
-
-  private boolean tryMulligan(int headBeforeX, int headBeforeY) {
-    boolean had = inventory.consumeFirst(PowerUps.Type.MULLIGAN);
-    if (!had)
-      return false;
-
-    Point safe = findNearestSafeTile(headBeforeX, headBeforeY);
-    if (safe == null)
-      return false;
-
-    // Teleport the head to a safe tile this tick.
-    sx[0] = safe.x;
-    sy[0] = safe.y;
-    // Treat as a normal (non-growth) move; arrays are already shifted in step().
-    // (No trimTail() needed in this model.)
-    // Sfx.play(Sfx.Id.MULLIGAN);
-    return true;
-  }
-
-  private Point findNearestSafeTile(int originX, int originY) {
-    int maxR = Math.max(Config.COLS, Config.ROWS);
-    for (int r = 1; r <= maxR; r++) {
-      for (int dx = -r; dx <= r; dx++) {
-        for (int dy = -r; dy <= r; dy++) {
-          if (Math.abs(dx) != r && Math.abs(dy) != r)
-            continue; // perimeter only
-          int x = originX + dx;
-          int y = originY + dy;
-          if (x < 0 || y < 0 || x >= Config.COLS || y >= Config.ROWS)
-            continue;
-          if (wall[x][y])
-            continue;
-          if (occupies(x, y))
-            continue;
-          return new Point(x, y);
-        }
+  private void showEvent(GameEvents.Type t, int a, int b) {
+    switch (t) {
+      case APPLE -> headFlashUntil = frameClock.nanos() + 580_000_000L;
+      case LEVEL_UP -> flashTicks = 12;
+      case SPEED -> repaint();
+      case BOARD_FULL -> queueToast("Board full!", Config.BONUS);
+      case DEATH -> gameOver();
+      case UNLOCK -> announceUnlock(Skins.Skin.values()[a], b);
+      default -> {
       }
     }
-    return null;
-  }
-
-  /* -------------------------- Spawns ------------------------ */
-  private void spawnApple() {
-    do {
-      appleX = rng.nextInt(Config.COLS);
-      appleY = rng.nextInt(Config.ROWS);
-    } while (occupies(appleX, appleY) || wall[appleX][appleY] || (bonusActive && appleX == bonusX && appleY == bonusY));
-  }
-
-  private void spawnBonus() {
-    int tries = 0;
-    do {
-      bonusX = rng.nextInt(Config.COLS);
-      bonusY = rng.nextInt(Config.ROWS);
-      tries++;
-      if (tries > 200)
-        break;
-    } while (occupies(bonusX, bonusY) || wall[bonusX][bonusY] || (bonusX == appleX && bonusY == appleY));
-    bonusActive = true;
-    bonusTicks = Config.BONUS_LIFE_TICKS;
-    Sfx.play(Sfx.Id.SPEED);
-  }
-
-  private boolean occupies(int x, int y) {
-    for (int i = 0; i < length; i++)
-      if (sx[i] == x && sy[i] == y)
-        return true;
-    return false;
   }
 
   /* ----------------------- Skin unlocks --------------------- */
+  // Tick side: the table only compares against its next thresholds and
+  // publishes UNLOCK; persisting and announcing happen when it is drained.
   private void maybeUnlockSkins() {
-    if ((score >= 500 || level >= 5) && skins.unlock(Skins.Skin.RAINBOW))
-      announceUnlock(Skins.Skin.RAINBOW, 14);
-    if ((score >= 900 || level >= 6) && skins.unlock(Skins.Skin.TRANS))
-      announceUnlock(Skins.Skin.TRANS, 16);
-    if ((score >= 600 || level >= 6) && skins.unlock(Skins.Skin.LESBIAN))
-      announceUnlock(Skins.Skin.LESBIAN, 14);
-    if ((score >= 700 || level >= 7) && skins.unlock(Skins.Skin.BI))
-      announceUnlock(Skins.Skin.BI, 14);
-    if ((score >= 800 || level >= 8) && skins.unlock(Skins.Skin.PAN))
-      announceUnlock(Skins.Skin.PAN, 14);
-    if ((score >= 1000 || level >= 9) && skins.unlock(Skins.Skin.NONBINARY))
-      announceUnlock(Skins.Skin.NONBINARY, 16);
-    if ((score >= 1100 || level >= 9) && skins.unlock(Skins.Skin.ASEXUAL))
-      announceUnlock(Skins.Skin.ASEXUAL, 16);
-    if ((score >= 1200 || level >= 10) && skins.unlock(Skins.Skin.AROMANTIC))
-      announceUnlock(Skins.Skin.AROMANTIC, 16);
-    if ((score >= 1300 || level >= 10) && skins.unlock(Skins.Skin.GENDERFLUID))
-      announceUnlock(Skins.Skin.GENDERFLUID, 18);
-    if ((score >= 1400 || level >= 11) && skins.unlock(Skins.Skin.INTERSEX))
-      announceUnlock(Skins.Skin.INTERSEX, 18);
-    if ((score >= 1500 || level >= 10) && skins.unlock(Skins.Skin.SOLAR))
-      announceUnlock(Skins.Skin.SOLAR, 18);
-    if ((score >= 1800 || level >= 12) && skins.unlock(Skins.Skin.SILVER))
-      announceUnlock(Skins.Skin.SILVER, 20);
-    if ((score >= 7500 || level >= 50) && skins.unlock(Skins.Skin.GOLD))
-      announceUnlock(Skins.Skin.GOLD, 20);
-    if ((score >= 1500 || level >= 100) && skins.unlock(Skins.Skin.PRIDE))
-      announceUnlock(Skins.Skin.PRIDE, 20);
+    unlocks.check(game.score, game.level, this::offerUnlock);
+  }
+
+  private boolean offerUnlock(Unlocks.Entry e) {
+    return events.publish(GameEvents.Type.UNLOCK, e.skin.ordinal(), e.flash);
   }
 
   private void announceUnlock(Skins.Skin s, int ft) {
     flashTicks = ft;
-    Sfx.play(Sfx.Id.LEVELUP);
     queueToast("New Skin: " + skins.label(s), Skins.Manager.accentFor(s));
   }
 
@@ -848,80 +977,67 @@ public class Anesk extends JPanel implements ActionListener {
   @Override
   protected void paintComponent(Graphics g) {
     super.paintComponent(g);
+    if (activeView != null)
+      return; // frames go through the canvas
     Graphics2D gg = (Graphics2D) g.create();
-    gg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-    gg.setColor(Config.BG);
-    gg.fillRect(0, 0, getWidth(), getHeight());
-
-    if (Config.SHOW_GRID) {
-      gg.setColor(Config.GRID);
-      for (int x = 0; x <= Config.COLS; x++)
-        gg.drawLine(x * Config.TILE, 0, x * Config.TILE, Config.ROWS * Config.TILE);
-      for (int y = 0; y <= Config.ROWS; y++)
-        gg.drawLine(0, y * Config.TILE, Config.COLS * Config.TILE, y * Config.TILE);
+    try {
+      renderFrame(gg);
+    } finally {
+      gg.dispose();
     }
-
-    gg.setColor(Config.WALL);
-    for (int x = 0; x < Config.COLS; x++)
-      for (int y = 0; y < Config.ROWS; y++)
-        if (wall[x][y])
-          gg.fillRoundRect(x * Config.TILE + 3, y * Config.TILE + 3, Config.TILE - 6, Config.TILE - 6, 6, 6);
-
-    // apple
-    gg.setColor(skins.appleColor());
-    gg.fillOval(appleX * Config.TILE + 3, appleY * Config.TILE + 3, Config.TILE - 6, Config.TILE - 6);
-
-    // bonus
-    if (bonusActive) {
-      int cx = bonusX * Config.TILE + Config.TILE / 2;
-      int cy = bonusY * Config.TILE + Config.TILE / 2;
-      int r = Config.TILE / 2 - 3;
-      gg.setColor(Config.BONUS);
-      Polygon diamond = new Polygon(
-          new int[] { cx, cx + r, cx, cx - r },
-          new int[] { cy - r, cy, cy + r, cy }, 4);
-      gg.fillPolygon(diamond);
+    if (perfFrameOnPaint) { // an asynchronous repaint() presented the frame
+      perfFrameOnPaint = false;
+      perf.frame();
     }
+  }
 
-    // snake
-    for (int i = 0; i < length; i++) {
-      boolean isHead = (i == 0);
-      if (isHead) {
-        if (System.nanoTime() < headFlashUntil)
-          gg.setColor(Config.APPLE);
-        else
-          gg.setColor(skins.snakeHeadColor());
-      } else {
-        gg.setColor(skins.snakeBodyColor(i));
-      }
-      int x = sx[i] * Config.TILE, y = sy[i] * Config.TILE;
-      gg.fillRoundRect(x + 2, y + 2, Config.TILE - 4, Config.TILE - 4, 6, 6);
+  /**
+   * One full frame; from paintComponent (EDT) or the active view's render thread.
+   * Off the EDT it may read: game (under its monitor), volatile fields
+   * (state, mode, flashes, settled view), Skins.Manager's selection, the active
+   * map name, BoardLayer (invalidate() is thread-safe) and the toast queue.
+   */
+  private void renderFrame(Graphics2D gg) {
+    long t0 = perf.begin();
+    gg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+    frameClock.sync(timeSource); // one clock read for skins, flashes and toasts
+    watchScale(Hud.deviceScale(gg));
+    float alpha = renderAlpha();
+    AffineTransform panel = gg.getTransform();
+    synchronized (game) { // the tick thread mutates game in place
+      toBoardSpace(gg, panel);
+      paintBoard(gg, alpha);
     }
+    gg.setTransform(panel);
 
     // top HUD line
-    gg.setColor(Config.TEXT);
-    gg.setFont(getFont().deriveFont(Font.BOLD, 14f));
-    String hud = String.format(
-        "Mode: %s   Map: %s   Score: %d   High: %d   Speed: %dx%s",
-        (mode == Mode.CLASSIC ? "Classic" : "Labyrinth"),
-        Maps.activeName(),
-        score,
-        highScore,
-        (speedIndex + 1),
-        Sfx.isMuted() ? "  (Muted M)" : "");
-    gg.drawString(hud, 10, 18);
+    String map = Maps.activeName();
+    hudTop.font(hud.ui(getFont(), Font.BOLD, 14f));
+    if (hudTop.changed((long) game.score << 32 | (highScore & 0xFFFFFFFFL),
+        game.speedIndex | (Sfx.isMuted() ? 1 << 8 : 0) | mode.ordinal() << 9) || !map.equals(hudTopMap)) {
+      hudTopMap = map;
+      hudTop.set(String.format(
+          "Mode: %s   Map: %s   Score: %d   High: %d   Speed: %dx%s",
+          mode.label,
+          map,
+          game.score,
+          highScore,
+          (game.speedIndex + 1),
+          Sfx.isMuted() ? "  (Muted M)" : ""));
+    }
+    hudTop.draw(gg, 10, 18);
 
     // overlays
     if (state == State.START) {
       drawStartScreen(gg);
     } else if (state == State.PAUSED) {
-      gg.setColor(new Color(0, 0, 0, 120));
+      gg.setColor(OVERLAY_DIM);
       gg.fillRect(0, 0, getWidth(), getHeight());
       drawCentered(gg, "PAUSED", 28, getHeight() / 2 - 10, true);
       drawCentered(gg, "Press Space to Resume", 16, getHeight() / 2 + 18, false);
     } else if (state == State.OVER) {
-      gg.setColor(new Color(0, 0, 0, 120));
+      gg.setColor(OVERLAY_DIM);
       gg.fillRect(0, 0, getWidth(), getHeight());
       drawCentered(gg, "GAME OVER", 28, getHeight() / 2 - 10, true);
       drawCentered(gg, "Press Space or R to Restart", 16, getHeight() / 2 + 18, false);
@@ -930,24 +1046,228 @@ public class Anesk extends JPanel implements ActionListener {
     // bottom HUD
     paintHud(gg);
     paintToast(gg);
-    gg.dispose();
+    perf.endPaint(t0);
+
+    if (perf.isOn())
+      perf.paint(gg, getWidth(), game.length, getGraphicsConfiguration());
+  }
+
+  /* ------------------------ Board view -------------------- */
+  /**
+   * Fit the board to the settled panel size: tiles grow with the window from
+   * Config.TILE at the preferred size, shrink down to MIN_TILE, and past that
+   * the view scrolls with the head. Only the visible cell range gets painted.
+   */
+  private void layoutView(float alpha) {
+    final double s = viewScale;
+    final int W = (int) Math.ceil(getWidth() * s), H = (int) Math.ceil(getHeight() * s);
+    final int sw = settledW > 0 ? settledW : getWidth(), sh = settledH > 0 ? settledH : getHeight();
+    final int SW = (int) Math.ceil(sw * s), SH = (int) Math.ceil(sh * s);
+    double zoom = Math.min((double) sw / (Config.COLS * Config.TILE), (double) sh / (Config.ROWS * Config.TILE));
+    int t = Math.min((int) (Config.TILE * zoom * s), Math.min(SW / game.cols, SH / game.rows));
+    t = Math.max((int) Math.round(Config.MIN_TILE * s), t);
+    viewTile = t;
+    boardW = W;
+    boardH = H;
+
+    int head = game.headCell();
+    lerpCell(game.length > 1 ? game.segment(1) : head, head, alpha);
+    viewOx = viewOrigin(W, game.cols * t, lerpX, t);
+    viewOy = viewOrigin(H, game.rows * t, lerpY, t);
+
+    viewX0 = Math.max(0, -viewOx / t);
+    viewY0 = Math.max(0, -viewOy / t);
+    viewX1 = Math.min(game.cols, (W - viewOx + t - 1) / t);
+    viewY1 = Math.min(game.rows, (H - viewOy + t - 1) / t);
+  }
+
+  // Board px = device px: drop the device scale (keeping the origin) so atlases
+  // and layers built at viewScale blit 1:1. A not yet settled scale change
+  // leaves a residual scale until settleView() catches up.
+  private void toBoardSpace(Graphics2D g, AffineTransform panel) {
+    if (viewScale == 1 && panel.getScaleX() == 1 && panel.getScaleY() == 1)
+      return;
+    g.setTransform(new AffineTransform(panel.getScaleX() / viewScale, 0, 0, panel.getScaleY() / viewScale,
+        Math.round(panel.getTranslateX()), Math.round(panel.getTranslateY())));
+  }
+
+  // Any thread: a frame saw this transform scale; re-settle if it moved.
+  private void watchScale(double s) {
+    if (settledW == 0) { // first frame: settle right away
+      settledW = getWidth();
+      settledH = getHeight();
+      viewScale = paintScale = s;
+    } else if (s != paintScale) {
+      paintScale = s;
+      SwingUtilities.invokeLater(resizeSettle::restart);
+    }
+  }
+
+  // EDT, once resizes and scale changes have been quiet for RESIZE_SETTLE_MS.
+  private void settleView() {
+    GraphicsConfiguration gc = getGraphicsConfiguration();
+    if (getWidth() == settledW && getHeight() == settledH && paintScale == viewScale && gc == settledGc)
+      return;
+    settledW = getWidth();
+    settledH = getHeight();
+    viewScale = paintScale;
+    if (gc != settledGc) { // atlases follow the new screen
+      settledGc = gc;
+      SpriteBank.invalidate(gc);
+    }
+    repaint(); // tile size, atlases and layers follow on this frame
+  }
+
+  // Centered if it fits, else centered on the head and clamped to the edges.
+  private static int viewOrigin(int viewPx, int boardPx, float headCell, int t) {
+    if (boardPx <= viewPx)
+      return (viewPx - boardPx) / 2;
+    return clamp(Math.round(viewPx / 2f - (headCell + 0.5f) * t), viewPx - boardPx, 0);
+  }
+
+  /** True if the cell is on screen (with a one-cell margin for sliding pieces). */
+  private boolean inView(int cell) {
+    int x = game.cellX(cell), y = game.cellY(cell);
+    return x >= viewX0 - 1 && x <= viewX1 && y >= viewY0 - 1 && y <= viewY1;
+  }
+
+  /** Background, walls, pickups and the snake, {@code alpha} of the way into the tick. */
+  private void paintBoard(Graphics2D gg, float alpha) {
+    layoutView(alpha);
+    final int t = viewTile, ox = viewOx, oy = viewOy;
+    Rectangle clip = gg.getClipBounds();
+    if (clip != null) { // dirty-region paints: skip cells outside the clip too
+      viewX0 = Math.max(viewX0, Math.floorDiv(clip.x - ox, t));
+      viewY0 = Math.max(viewY0, Math.floorDiv(clip.y - oy, t));
+      viewX1 = Math.min(viewX1, Math.floorDiv(clip.x + clip.width - ox, t) + 1);
+      viewY1 = Math.min(viewY1, Math.floorDiv(clip.y + clip.height - oy, t) + 1);
+    }
+
+    if (t != atlasTile) { // the view settled on a new size: let the old atlases go
+      SpriteBank.trim(t);
+      atlasTile = t;
+    }
+    SpriteBank.Atlas sprites = SpriteBank.get(skins.get(), t); // cached per skin + tile size
+
+    // huge boards: queue the tiles and write them straight into a raster below
+    rasterFrame = raster.wanted(game, t);
+    if (rasterFrame) {
+      raster.begin();
+    } else {
+      gg.setColor(Config.BG);
+      gg.fillRect(0, 0, boardW, boardH);
+      // grid + walls: cached layer, or just the visible cells when too big to cache
+      if (!boardLayer.paint(gg, game, sprites, ox, oy, getGraphicsConfiguration()))
+        BoardLayer.drawStatic(gg, game, sprites, ox, oy, viewX0, viewY0, viewX1, viewY1);
+    }
+
+    // apple (none while the board is full)
+    if (game.appleX >= 0 && inView(game.cell(game.appleX, game.appleY)))
+      tile(gg, sprites, sprites.appleSlot(), ox + game.appleX * t, oy + game.appleY * t);
+
+    // bonus
+    if (game.bonusActive && inView(game.cell(game.bonusX, game.bonusY)))
+      tile(gg, sprites, sprites.bonusSlot(), ox + game.bonusX * t, oy + game.bonusY * t);
+
+    // snake: tail first so the head lands on top. Cells are drawn as-is;
+    // the head slides in from its previous cell and a trailing piece slides
+    // out of the vacated tail cell, both by alpha. Off-screen cells are skipped.
+    int last = game.length - 1;
+    if (last > 0 && inView(game.segment(last))) // the piece sits next to the tail cell
+      drawSegment(gg, sprites, last, game.prevTail, game.segment(last), alpha);
+    for (int i = last, k = game.tailIndex(); i >= 0; i--, k = (k + 1 == game.maxLen) ? 0 : k + 1) {
+      int cell = game.body[k];
+      if (!inView(cell))
+        continue;
+      int from = (i == 0 && last > 0) ? game.segment(1) : cell;
+      drawSegment(gg, sprites, i, from, cell, alpha);
+    }
+
+    if (rasterFrame) // background, grid and walls are filled in there, under the queue
+      raster.render(gg, game, sprites, boardW, boardH, clip, ox, oy, viewX0, viewY0, viewX1, viewY1);
+  }
+
+  // An atlas tile: blitted now, or queued for the raster pass.
+  private void tile(Graphics2D g, SpriteBank.Atlas sprites, int slot, int x, int y) {
+    if (rasterFrame)
+      raster.add(slot, x, y);
+    else
+      sprites.blit(g, slot, x, y);
+  }
+
+  /**
+   * Segment {@code idx} (0 = head), placed {@code a} of the way from cell
+   * {@code from} to {@code to}, as an atlas tile.
+   */
+  private void drawSegment(Graphics2D g, SpriteBank.Atlas sprites, int idx, int from, int to, float a) {
+    lerpCell(from, to, a);
+    final int t = viewTile;
+    int px = viewOx + Math.round(lerpX * t), py = viewOy + Math.round(lerpY * t);
+    tile(g, sprites, idx == 0 ? sprites.headSlot(frameClock.nanos() < headFlashUntil) : sprites.bodySlot(idx), px, py);
+  }
+
+  /** Cell position {@code a} of the way from {@code from} to {@code to}, into lerpX/lerpY. */
+  private void lerpCell(int from, int to, float a) {
+    int tx = game.cellX(to), ty = game.cellY(to);
+    float x = tx, y = ty;
+    if (from != to && a < 1f) {
+      int dx = tx - game.cellX(from), dy = ty - game.cellY(from);
+      // a step across a wrapped edge slides in from the outside
+      if (dx == game.cols - 1)
+        dx = -1;
+      else if (dx == 1 - game.cols)
+        dx = 1;
+      if (dy == game.rows - 1)
+        dy = -1;
+      else if (dy == 1 - game.rows)
+        dy = 1;
+      if (Math.abs(dx) + Math.abs(dy) == 1) { // anything else (teleport) snaps
+        x = tx - dx * (1f - a);
+        y = ty - dy * (1f - a);
+      }
+    }
+    lerpX = x;
+    lerpY = y;
   }
 
   private void drawStartScreen(Graphics2D g) {
     final int W = getWidth(), H = getHeight();
 
     // Background vignette
-    g.setColor(new Color(0, 0, 0, 110));
+    g.setColor(START_VIGNETTE);
     g.fillRect(0, 0, W, H);
 
-    // Card (responsive: ~74% width, ~56% height, with sane clamps)
-    int cardW = clamp((int) (W * 0.74), 560, W - 120);
-    int cardH = clamp((int) (H * 0.56), 320, H - 220);
+    // Card (responsive: ~74% width, ~56% height, with sane clamps), sized
+    // for the settled panel so a live resize only re-centres it
+    final int SW = settledW > 0 ? settledW : W, SH = settledH > 0 ? settledH : H;
+    int cardW = clamp((int) (SW * 0.74), 560, SW - 120);
+    int cardH = clamp((int) (SH * 0.56), 320, SH - 220);
     int cardX = (W - cardW) / 2;
     int cardY = (H - cardH) / 2;
-
-    // Glassy panel
-    paintGlassPanel(g, cardX, cardY, cardW, cardH);
+    final int M = START_MARGIN;
+    startBounds.setBounds(cardX - M, cardY - M, cardW + 2 * M, cardH + 2 * M);
+
+    // Glass panel and preview track under the snake, texts and pill over it:
+    // both cached until they change
+    Skins.Skin skin = skins.get();
+    String map = Maps.activeName();
+    long keyA = (long) cardW << 48 | (long) cardH << 32 | mode.ordinal() << 16 | skin.ordinal() << 1
+        | (skins.isUnlocked(skin) ? 1 : 0);
+    long keyB = highScore;
+    Font font = getFont();
+    if (startCard == null || keyA != startKeyA || keyB != startKeyB || startScale != viewScale
+        || !map.equals(startMap) || font != startFont) {
+      startKeyA = keyA;
+      startKeyB = keyB;
+      startMap = map;
+      startFont = font;
+      startScale = viewScale;
+      startCard = startLayer(startCard, cardW, cardH, startScale);
+      startText = startLayer(startText, cardW, cardH, startScale);
+      startMapLine = "Map: " + map + "   (T to switch)";
+      renderStartCard(cardX, cardY, cardW, cardH);
+    }
+    Hud.blit(g, startCard, cardX - M, cardY - M, startScale);
 
     // Left preview area (snake)
     int leftW = (cardW / 2) - 36;
@@ -956,43 +1276,99 @@ public class Anesk extends JPanel implements ActionListener {
     int leftY = cardY + 80;
     drawPreviewSnake(g, leftX, leftY, leftW, leftH);
 
-    // Right preview area (apple) — opposite phase to the snake
-    int rightW = (cardW / 2) - 36;
-    int rightH = leftH;
-    int rightX = cardX + cardW - rightW - 20;
-    int rightY = leftY;
-
-    // Animated title glow
-    double t = (System.nanoTime() - bootNanos) / 1_000_000_000.0;
+    // Animated title glow: the cached glow label faded by the pulse, core on top
+    double t = (frameClock.nanos() - bootNanos) / 1_000_000_000.0;
     float glow = (float) (0.6 + 0.4 * Math.sin(t * 2.2));
-    g.setFont(getFont().deriveFont(Font.BOLD, 36f));
-    drawNeonText(g, "NEON SNAKE", cardX + cardW / 2, cardY + 68, glow);
-
-    // Mode / Skin / High score
-    g.setFont(getFont().deriveFont(Font.PLAIN, 14f));
-    g.setColor(new Color(0xE6E6FF));
-    String line1 = "Mode: " + (mode == Mode.CLASSIC ? "Classic" : "Labyrinth") + "   (Tab to switch)";
-    String line2 = "Skin: " + skins.label(skins.get()) + "   (X to cycle)";
-    String line3 = "High Score: " + highScore;
-
-    drawCenteredText(g, line1, cardX, cardY + 110, cardW);
-    drawCenteredText(g, line2, cardX, cardY + 135, cardW);
-    drawCenteredText(g, line3, cardX, cardY + 160, cardW);
-
-    // Big Start pill
-    drawPill(g, "Press  Enter  •  Space to start", cardX + 24, cardY + 190, cardW - 48, 36);
-
-    // Controls row
-    g.setFont(getFont().deriveFont(Font.PLAIN, 12f));
-    drawCenteredText(g, "Arrows/WASD move  •  P pause  •  R restart  •  M mute", cardX, cardY + 238, cardW);
+    Font title = hud.ui(getFont(), Font.BOLD, 36f);
+    startGlow.font(title);
+    startTitle.font(title);
+    if (startTitle.changed(0))
+      startTitle.set("NEON SNAKE");
+    if (startGlow.changed(0))
+      startGlow.set("NEON SNAKE");
+    int tx = cardX + cardW / 2 - startTitle.width() / 2;
+    Composite c = g.getComposite();
+    g.setComposite(AlphaComposite.SrcOver.derive(Math.min(1f, glow)));
+    startGlow.draw(g, tx, cardY + 68);
+    g.setComposite(c);
+    startTitle.draw(g, tx, cardY + 68);
+    Hud.blit(g, startText, cardX - M, cardY - M, startScale);
 
     // Tiny bobbing apple
     int ax = cardX + cardW - 56, ay = cardY + 62 + (int) (Math.sin(t * 3.0) * 4);
     g.setColor(skins.appleColor());
     g.fillOval(ax, ay, 16, 16);
 
-    String lineMap = "Map: " + Maps.activeName() + "   (T to switch)";
-    drawCenteredText(g, lineMap, cardX, cardY + 95, cardW); // adjust Y if needed
+    // map line, in the apple's colour
+    g.setFont(hud.ui(getFont(), Font.PLAIN, 12f));
+    drawCenteredText(g, startMapLine, cardX, cardY + 95, cardW); // adjust Y if needed
+  }
+
+  // Transparent card-sized layer in device px, reusing img when the size still fits
+  private static java.awt.image.BufferedImage startLayer(java.awt.image.BufferedImage img, int cardW, int cardH,
+      double scale) {
+    final int w = (int) Math.ceil((cardW + 2 * START_MARGIN) * scale);
+    final int h = (int) Math.ceil((cardH + 2 * START_MARGIN) * scale);
+    if (img != null && img.getWidth() == w && img.getHeight() == h) {
+      Graphics2D g = img.createGraphics();
+      g.setComposite(AlphaComposite.Clear);
+      g.fillRect(0, 0, w, h);
+      g.dispose();
+      return img;
+    }
+    if (img != null)
+      img.flush();
+    return SpriteBank.compatibleImage(w, h);
+  }
+
+  // The parts of the start card that only change with the mode, skin, map, high score or size
+  private void renderStartCard(int cardX, int cardY, int cardW, int cardH) {
+    final int M = START_MARGIN;
+    Graphics2D g = startCard.createGraphics();
+    try {
+      g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      g.scale(startScale, startScale);
+      g.translate(M - cardX, M - cardY);
+
+      // Glassy panel
+      paintGlassPanel(g, cardX, cardY, cardW, cardH);
+
+      // Preview track (the snake itself is drawn per frame)
+      int leftW = (cardW / 2) - 36;
+      int leftH = cardH - 150;
+      previewTrack(cardX + 20, cardY + 80, leftW, leftH, startTrack);
+      g.setColor(PREVIEW_TRACK);
+      g.drawRoundRect(startTrack.x, startTrack.y, startTrack.width, startTrack.height, 14, 14);
+    } finally {
+      g.dispose();
+    }
+
+    g = startText.createGraphics();
+    try {
+      g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      g.scale(startScale, startScale);
+      g.translate(M - cardX, M - cardY);
+
+      // Mode / Skin / High score
+      g.setFont(hud.ui(getFont(), Font.PLAIN, 14f));
+      g.setColor(new Color(0xE6E6FF));
+      String line1 = "Mode: " + mode.label + "   (Tab to switch)";
+      String line2 = "Skin: " + skins.label(skins.get()) + "   (X to cycle)";
+      String line3 = "High Score: " + highScore;
+
+      drawCenteredText(g, line1, cardX, cardY + 110, cardW);
+      drawCenteredText(g, line2, cardX, cardY + 135, cardW);
+      drawCenteredText(g, line3, cardX, cardY + 160, cardW);
+
+      // Big Start pill
+      drawPill(g, "Press  Enter  •  Space to start", cardX + 24, cardY + 190, cardW - 48, 36);
+
+      // Controls row
+      g.setFont(hud.ui(getFont(), Font.PLAIN, 12f));
+      drawCenteredText(g, "Arrows/WASD move  •  P pause  •  R restart  •  M mute", cardX, cardY + 238, cardW);
+    } finally {
+      g.dispose();
+    }
   }
 
   private static int clamp(int v, int lo, int hi) {
@@ -1011,19 +1387,6 @@ public class Anesk extends JPanel implements ActionListener {
     gg.dispose();
   }
 
-  private void drawNeonText(Graphics2D g, String text, int cx, int cy, float glow) {
-    FontMetrics fm = g.getFontMetrics();
-    int x = cx - fm.stringWidth(text) / 2;
-    g.setColor(new Color(184, 132, 255, Math.min(255, (int) (140 * glow))));
-    for (int r = 6; r >= 2; r -= 2) {
-      g.setStroke(new BasicStroke(r));
-      g.drawString(text, x, cy);
-    }
-    g.setColor(new Color(230, 230, 255));
-    g.setStroke(new BasicStroke(1f));
-    g.drawString(text, x, cy);
-  }
-
   private void drawCenteredText(Graphics2D g, String s, int left, int y, int width) {
     FontMetrics fm = g.getFontMetrics();
     int x = left + (width - fm.stringWidth(s)) / 2;
@@ -1039,7 +1402,7 @@ public class Anesk extends JPanel implements ActionListener {
     gg.setColor(new Color(255, 255, 255, 70));
     gg.setStroke(new BasicStroke(2f));
     gg.draw(rr);
-    gg.setFont(getFont().deriveFont(Font.BOLD, 14f));
+    gg.setFont(hud.ui(getFont(), Font.BOLD, 14f));
     gg.setColor(new Color(230, 230, 255));
     FontMetrics fm = gg.getFontMetrics();
     int tx = x + (w - fm.stringWidth(label)) / 2;
@@ -1048,41 +1411,55 @@ public class Anesk extends JPanel implements ActionListener {
     gg.dispose();
   }
 
-  private static Point pointOnRect(float t, int x, int y, int w, int h) {
+  private static void pointOnRect(float t, int x, int y, int w, int h, Point out) {
     t = (t % 1f + 1f) % 1f;
     float per = 2f * (w + h);
     float d = t * per;
-    if (d < w)
-      return new Point(x + Math.round(d), y);
+    if (d < w) {
+      out.setLocation(x + Math.round(d), y);
+      return;
+    }
     d -= w;
-    if (d < h)
-      return new Point(x + w, y + Math.round(d));
+    if (d < h) {
+      out.setLocation(x + w, y + Math.round(d));
+      return;
+    }
     d -= h;
-    if (d < w)
-      return new Point(x + w - Math.round(d), y + h);
+    if (d < w) {
+      out.setLocation(x + w - Math.round(d), y + h);
+      return;
+    }
     d -= w;
-    return new Point(x, y + h - Math.round(d));
+    out.setLocation(x, y + h - Math.round(d));
   }
 
-  private void drawPreviewSnake(Graphics2D g, int x, int y, int w, int h) {
-    int r = Math.min(16, Math.max(10, Math.min(w, h) / 10));
+  // The rectangle the preview snake runs around, inside the preview area.
+  private static void previewTrack(int x, int y, int w, int h, Rectangle out) {
+    int r = previewSize(w, h);
     int pad = (int) Math.round(stroke / 2f + r / 2f);
-    int rx = x + pad, ry = y + pad;
-    int rw = Math.max(80, w - pad * 2), rh = Math.max(60, h - pad * 2);
+    out.setBounds(x + pad, y + pad, Math.max(80, w - pad * 2), Math.max(60, h - pad * 2));
+  }
+
+  private static int previewSize(int w, int h) {
+    return Math.min(16, Math.max(10, Math.min(w, h) / 10));
+  }
 
-    float t = (float) ((System.nanoTime() - bootNanos) / 1_000_000_000.0);
+  private void drawPreviewSnake(Graphics2D g, int x, int y, int w, int h) {
+    int r = previewSize(w, h);
+    previewTrack(x, y, w, h, startTrack);
+    int rx = startTrack.x, ry = startTrack.y, rw = startTrack.width, rh = startTrack.height;
+
+    float t = (float) ((frameClock.nanos() - bootNanos) / 1_000_000_000.0);
     float speed = 0.12f;
     float headT = (t * speed) % 1f;
 
     int segs = 12;
     float spacing = 0.045f;
 
-    g.setColor(new Color(255, 255, 255, 22));
-    g.drawRoundRect(rx, ry, rw, rh, 14, 14);
-
     for (int i = segs - 1; i >= 0; i--) {
       float ti = (headT - i * spacing + 1f) % 1f;
-      Point p = pointOnRect(ti, rx, ry, rw, rh);
+      Point p = startPoint;
+      pointOnRect(ti, rx, ry, rw, rh, p);
       g.setColor(i == 0 ? skins.snakeHeadColor() : skins.snakeBodyColor(i));
       g.fillRoundRect(p.x - r / 2, p.y - r / 2, r, r, 6, 6);
     }
@@ -1094,61 +1471,60 @@ public class Anesk extends JPanel implements ActionListener {
     final int Y = getHeight() - HUD_H;
 
     // right-aligned current skin label
-    g.setFont(new Font("Consolas", Font.PLAIN, 12));
-    g.setColor(Color.WHITE);
-    String skinStr = "Skin: " + skins.label(skins.get());
-    FontMetrics fm2 = g.getFontMetrics();
-    g.drawString(skinStr, W - 16 - fm2.stringWidth(skinStr), Y + 30);
+    Skins.Skin skin = skins.get();
+    if (hudSkin.changed(skin.ordinal(), skins.isUnlocked(skin) ? 1 : 0))
+      hudSkin.set("Skin: " + skins.label(skin));
+    hudSkin.draw(g, W - 16 - hudSkin.width(), Y + 30);
 
     // bg bar
-    g.setColor(new Color(0, 0, 0, 140));
+    g.setColor(HUD_BAR);
     g.fillRect(0, Y, W, HUD_H);
 
     // text
-    g.setFont(new Font("Consolas", Font.BOLD, 18));
-    g.setColor(Color.WHITE);
-    g.drawString("LEVEL " + level, 16, Y + 30);
+    if (hudLevel.changed(game.level))
+      hudLevel.set("LEVEL " + game.level);
+    hudLevel.draw(g, 16, Y + 30);
 
     int barW = 280, barH = 12;
     int barX = 130, barY = Y + 18;
 
-    g.setColor(new Color(255, 255, 255, 60));
+    g.setColor(HUD_FRAME);
     g.drawRect(barX, barY, barW, barH);
 
-    float pct = currentXpNeeded() > 0 ? Math.min(1f, xp / (float) currentXpNeeded()) : 1f;
+    int need = sim.currentXpNeeded();
+    float pct = need > 0 ? Math.min(1f, game.xp / (float) need) : 1f;
     int fill = (int) (barW * pct);
 
     int glow = Math.max(0, Math.min(255, flashTicks * 12));
-    g.setColor(new Color(127, 240, 255, 120 + glow / 3));
+    g.setColor(XP_FILL[glow / 3]);
     g.fillRect(barX + 1, barY + 1, Math.max(0, fill - 1), barH - 1);
 
-    g.setColor(Color.WHITE);
-    g.setFont(new Font("Consolas", Font.PLAIN, 12));
-    g.drawString(xp + " / " + currentXpNeeded() + " XP", barX + barW + 10, barY + barH);
+    if (hudXp.changed(game.xp, need))
+      hudXp.set(game.xp + " / " + need + " XP");
+    hudXp.draw(g, barX + barW + 10, barY + barH);
     // --- Multiplier HUD (under XP bar) ---
     int mBarW = 120, mBarH = 8;
     int mBarX = barX; // align left with XP bar
     int mBarY = barY + barH + 6; // just below XP bar (fits in your 48px HUD)
 
-    g.setColor(new Color(255, 255, 255, 60));
+    g.setColor(HUD_FRAME);
     g.drawRect(mBarX, mBarY, mBarW, mBarH);
 
-    float mPct = (multTier <= 1) ? (multMeterMs / (float) MULT_METER_FULL_MS)
-        : (multMeterMs / (float) MULT_METER_FULL_MS);
+    float mPct = game.multMeterMs / (float) Simulator.MULT_METER_FULL_MS;
     int mFill = (int) (mBarW * Math.max(0f, Math.min(1f, mPct)));
 
-    g.setColor(new Color(180, 240, 120, 160));
+    g.setColor(HUD_MULT);
     g.fillRect(mBarX + 1, mBarY + 1, Math.max(0, mFill - 1), mBarH - 1);
 
     // label: xN
-    g.setFont(new Font("Consolas", Font.BOLD, 14));
-    g.setColor(Color.WHITE);
-    g.drawString("x" + multTier, mBarX + mBarW + 10, mBarY + mBarH);
+    if (hudMult.changed(game.multTier))
+      hudMult.set("x" + game.multTier);
+    hudMult.draw(g, mBarX + mBarW + 10, mBarY + mBarH);
 
   }
 
   private void queueToast(String text, Color accent) {
-    toastQ.add(new Toast(text, accent, 2600));
+    toastQ.add(new Toast(text, accent, 2600, frameClock));
   }
 
   private void paintToast(Graphics2D g) {
@@ -1165,116 +1541,43 @@ public class Anesk extends JPanel implements ActionListener {
     gg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
     gg.setComposite(AlphaComposite.SrcOver.derive(alpha));
 
-    String text = activeToast.text;
-    gg.setFont(getFont().deriveFont(Font.BOLD, 14f));
-    FontMetrics fm = gg.getFontMetrics();
+    toastText.font(hud.ui(getFont(), Font.BOLD, 14f));
+    if (toastText.changed(activeToast.t0, System.identityHashCode(activeToast)))
+      toastText.set(activeToast.text);
 
     int padX = 14, padY = 9;
-    int w = fm.stringWidth(text) + padX * 2;
-    int h = fm.getHeight() + padY * 2;
+    int w = toastText.width() + padX * 2;
+    int h = toastText.height() + padY * 2;
     int x = (getWidth() - w) / 2;
     int y = 52;
 
-    gg.setColor(new Color(20, 22, 34, 200));
+    gg.setColor(TOAST_BG);
     gg.fillRoundRect(x, y, w, h, h, h);
-    gg.setStroke(new BasicStroke(2f));
-    gg.setColor(
-        new Color(activeToast.accent.getRed(), activeToast.accent.getGreen(), activeToast.accent.getBlue(), 230));
+    gg.setStroke(TOAST_RIM);
+    gg.setColor(activeToast.rim);
     gg.drawRoundRect(x, y, w, h, h, h);
 
-    gg.setColor(Color.WHITE);
-    gg.drawString(text, x + padX, y + padY + fm.getAscent());
+    toastText.draw(gg, x + padX, y + padY + toastText.ascent());
     gg.dispose();
   }
 
   private void drawCentered(Graphics2D g, String s, float size, int cy, boolean bold) {
     g.setColor(Config.TEXT);
-    g.setFont(getFont().deriveFont(bold ? Font.BOLD : Font.PLAIN, size));
+    g.setFont(hud.ui(getFont(), bold ? Font.BOLD : Font.PLAIN, size));
     FontMetrics fm = g.getFontMetrics();
     int w = fm.stringWidth(s);
     g.drawString(s, (getWidth() - w) / 2, cy);
   }
 
-  /* ----------------------- Level / Maps --------------------- */
-
-  private void addXp(int amount) {
-    if (amount <= 0)
-      return;
-    xp += amount;
-
-    // Handle multi-level jumps safely
-    for (;;) {
-      int need = currentXpNeeded();
-      if (xp < need)
-        break;
-      xp -= need;
-      level++;
-      onLevelUp();
-      maybeUnlockSkins();
-    }
-    saveProgress();
-  }
-
-  private void onLevelUp() {
-    currentTickDelay = Math.max(TICK_FLOOR, timer.getDelay() - TICK_STEP);
-    timer.setDelay(currentTickDelay);
-    flashTicks = 12;
-    Sfx.play(Sfx.Id.LEVELUP);
-  }
-
-  private void loadLabyrinthLevelFromTxt(String resourcePath) {
-    LevelMap map = LevelMap.load(resourcePath);
-
-    // 1) sanity: your Config size should match the map size
-    if (map.w != Config.COLS || map.h != Config.ROWS) {
-      throw new IllegalStateException("Map size " + map.w + "x" + map.h +
-          " doesn't match Config " + Config.COLS + "x" + Config.ROWS);
-    }
-
-    // 2) copy walls/pellets into game grids
-    for (int x = 0; x < Config.COLS; x++)
-      for (int y = 0; y < Config.ROWS; y++)
-        wall[x][y] = map.wall[x][y];
-
-    // 3) choose a safe initial direction from spawn
-    int sx0 = Math.max(0, Math.min(Config.COLS - 1, map.spawn.x));
-    int sy0 = Math.max(0, Math.min(Config.ROWS - 1, map.spawn.y));
-    Dir d = pickSafeDir(wall, sx0, sy0);
-    if (d == null)
-      d = Dir.RIGHT; // fallback
-
-    // 4) snake head + body
-    dir = d;
-    sx[0] = sx0;
-    sy[0] = sy0;
-    int dx = (dir == Dir.RIGHT ? 1 : dir == Dir.LEFT ? -1 : 0);
-    int dy = (dir == Dir.DOWN ? 1 : dir == Dir.UP ? -1 : 0);
-    for (int i = 1; i < length; i++) {
-      sx[i] = (sx[i - 1] - dx + Config.COLS) % Config.COLS;
-      sy[i] = (sy[i - 1] - dy + Config.ROWS) % Config.ROWS;
-    }
-  }
-
-  private Dir pickSafeDir(boolean[][] w, int x, int y) {
-    if (free(w, (x + 1) % Config.COLS, y))
-      return Dir.RIGHT;
-    if (free(w, (x - 1 + Config.COLS) % Config.COLS, y))
-      return Dir.LEFT;
-    if (free(w, x, (y + 1) % Config.ROWS))
-      return Dir.DOWN;
-    if (free(w, x, (y - 1 + Config.ROWS) % Config.ROWS))
-      return Dir.UP;
-    return null;
-  }
-
-  private boolean free(boolean[][] w, int x, int y) {
-    return !w[x][y];
-  }
-
   /* --------------------- Start ticker callback --------------- */
   private void onStartTick(java.awt.event.ActionEvent evt) {
-    if (state == State.START)
+    if (state != State.START)
+      return;
+    if (startBounds.isEmpty() || activeToast != null || !toastQ.isEmpty() || perf.isOn())
       repaint();
+    else
+      repaint(startBounds); // the board behind the vignette is not moving
+    perfFrameOnPaint = perf.isOn(); // passive modes only: the paint closes it
   }
 
   @SuppressWarnings("unused")
@@ -1309,8 +1612,10 @@ public class Anesk extends JPanel implements ActionListener {
     setLevelBtn.addActionListener(e -> {
       try {
         int newLevel = Math.max(1, Integer.parseInt(levelField.getText().trim()));
-        level = newLevel;
-        xp = 0; // optional
+        synchronized (game) {
+          game.level = newLevel;
+          game.xp = 0; // optional
+        }
         repaint();
       } catch (NumberFormatException ignore) {
       }
@@ -1323,12 +1628,22 @@ public class Anesk extends JPanel implements ActionListener {
 
     // --- Quick XP ---
     JButton xp10 = new JButton("+10 XP");
-    xp10.addActionListener(e -> addXp(10));
+    xp10.addActionListener(e -> {
+      synchronized (game) {
+        sim.addXp(10);
+      }
+      drainEvents();
+    });
     devPanel.add(xp10, gc);
 
     gc.gridx = 1;
     JButton xpToNext = new JButton("Level up");
-    xpToNext.addActionListener(e -> addXp(Math.max(1, currentXpNeeded() - xp)));
+    xpToNext.addActionListener(e -> {
+      synchronized (game) {
+        sim.addXp(Math.max(1, sim.currentXpNeeded() - game.xp));
+      }
+      drainEvents();
+    });
     devPanel.add(xpToNext, gc);
 
     // --- Score field + Apply ---
@@ -1337,14 +1652,17 @@ public class Anesk extends JPanel implements ActionListener {
     devPanel.add(new JLabel("Set score:"), gc);
 
     gc.gridx = 1;
-    JTextField scoreIn = new JTextField(Integer.toString(score), 6);
+    JTextField scoreIn = new JTextField(Integer.toString(game.score), 6);
     devPanel.add(scoreIn, gc);
 
     gc.gridx = 2;
     JButton setScore = new JButton("Apply");
     setScore.addActionListener(e -> {
       try {
-        score = Math.max(0, Integer.parseInt(scoreIn.getText().trim()));
+        int score = Math.max(0, Integer.parseInt(scoreIn.getText().trim()));
+        synchronized (game) { // the tick thread adds to score
+          game.score = score;
+        }
         repaint();
       } catch (NumberFormatException ignore) {
       }
@@ -1377,6 +1695,9 @@ public class Anesk extends JPanel implements ActionListener {
     unlockAll.addActionListener(e -> {
       for (Skins.Skin s : Skins.Skin.values())
         skins.unlock(s);
+      synchronized (game) {
+        unlocks.rearm(skins::isUnlocked);
+      }
       queueToast("All skins unlocked (dev)", Color.WHITE);
     });
     devPanel.add(unlockAll, gc);
@@ -1386,52 +1707,59 @@ public class Anesk extends JPanel implements ActionListener {
     gc.gridx = 0;
     gc.gridy++;
     JCheckBox invChk = new JCheckBox("Invincible (ignore walls/body)");
-    invChk.setSelected(devInvincible);
+    invChk.setSelected(game.invincible);
     devPanel.add(invChk, gc);
 
-    // Show dialog
-    int result = JOptionPane.showConfirmDialog(
-        parent, devPanel, "Dev Tools",
-        JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
-
-    if (result == JOptionPane.OK_OPTION) {
-      devInvincible = invChk.isSelected();
-    }
-  }
-
-  private void multiplierTick() {
-    long now = System.currentTimeMillis();
-    int dt = (int) Math.min(250, Math.max(0, now - multLastMs)); // clamp big hitches
-    multLastMs = now;
+    // --- Tick timing ---
+    gc.gridy++;
+    JCheckBox turboChk = new JCheckBox("Turbo (1 ms ticks)");
+    turboChk.setSelected(turbo);
+    devPanel.add(turboChk, gc);
 
-    if (dt == 0)
-      return;
-    if (multMeterMs <= 0)
-      return;
+    gc.gridy++;
+    TimingRing jit = ticker.jitter();
+    devPanel.add(new JLabel(String.format(
+        "Tick interval %.2f ms avg  •  jitter p50 %.3f / p99 %.3f / max %.3f ms",
+        ticker.intervals().mean() / 1e6, jit.percentile(50) / 1e6,
+        jit.percentile(99) / 1e6, jit.max() / 1e6)), gc);
 
-    multMeterMs -= dt;
+    gc.gridy++;
+    TimingRing lag = input.latency();
+    devPanel.add(new JLabel(String.format(
+        "Key-to-tick latency p50 %.1f / p99 %.1f / max %.1f ms  (%d presses)",
+        lag.percentile(50) / 1e6, lag.percentile(99) / 1e6, lag.max() / 1e6, lag.size())), gc);
 
-    // If meter underflows, step down tiers gradually.
-    while (multMeterMs < 0 && multTier > 1) {
-      multTier--;
-      multMeterMs += MULT_METER_FULL_MS; // carry underflow into the lower tier
+    // --- Board renderer ---
+    gc.gridy++;
+    JCheckBox rasterChk = new JCheckBox("Direct-raster board renderer (all board sizes)");
+    rasterChk.setSelected(raster.mode == RasterBoard.Mode.ON);
+    devPanel.add(rasterChk, gc);
+
+    // --- Performance overlay (DEV builds) ---
+    JCheckBox perfChk = new JCheckBox("Performance overlay (frame/paint/tick, GC, alloc)");
+    perfChk.setSelected(perf.isOn());
+    if (DEV) {
+      gc.gridy++;
+      devPanel.add(perfChk, gc);
     }
-    if (multTier == 1 && multMeterMs < 0)
-      multMeterMs = 0;
-  }
 
-  private void multiplierOnApple() {
-    multMeterMs += MULT_GAIN_ON_APPLE_MS;
+    // Show dialog
+    int result = JOptionPane.showConfirmDialog(
+        parent, devPanel, "Dev Tools",
+        JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
 
-    while (multMeterMs >= MULT_METER_FULL_MS && multTier < MULT_MAX_TIER) {
-      multMeterMs -= MULT_METER_FULL_MS;
-      multTier++;
-    }
-    // Cap meter at full when at max tier
-    if (multTier == MULT_MAX_TIER && multMeterMs > MULT_METER_FULL_MS) {
-      multMeterMs = MULT_METER_FULL_MS;
+    if (result == JOptionPane.OK_OPTION) {
+      synchronized (game) {
+        game.invincible = invChk.isSelected();
+      }
+      turbo = turboChk.isSelected();
+      perf.setOn(DEV && perfChk.isSelected());
+      if (rasterChk.isSelected())
+        raster.mode = RasterBoard.Mode.ON;
+      else if (raster.mode == RasterBoard.Mode.ON)
+        raster.mode = RasterBoard.Mode.AUTO;
+      repaint();
     }
-    multLastMs = System.currentTimeMillis();
   }
 
 }
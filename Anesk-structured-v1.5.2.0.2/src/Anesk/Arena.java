@@ -0,0 +1,497 @@
+package Anesk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Many snakes on one board (bot arenas, "battle royale"). Swing-free.
+ * - Each tick has two phases. Intent: every live snake's Pilot picks a move
+ *   from last tick's board (across cores once there are enough snakes).
+ *   Merge: moves are applied one snake at a time in id order, so the outcome
+ *   never depends on thread timing
+ * - Merge rules: vacating tails move first (chasing a tail is legal), heads
+ *   that meet on one cell all die, walls and bodies kill, an apple grows the
+ *   eater by one
+ * - A dead snake leaves the board at once and its cells become free
+ * - All randomness is seeded: the arena's RNG for spawns, one per snake for pilots
+ */
+public final class Arena {
+
+  /** Picks a snake's next direction. Runs in parallel: read the arena, touch only {@code s}. */
+  public interface Pilot {
+    GameState.Dir steer(Arena a, Snake s);
+  }
+
+  /** One snake: a growable ring of packed cells, head at body[head]. */
+  public static final class Snake {
+    public final int id;
+    final Pilot pilot;
+    final SplittableRandom rng;
+    int[] body = new int[16];
+    int head, length;
+    GameState.Dir dir = GameState.Dir.RIGHT;
+    int grow; // pending segments from apples
+    int score;
+    boolean alive = true;
+    int target = -1; // free slot for pilots (e.g. the apple being chased)
+
+    // intent phase output / merge scratch
+    int next;
+    boolean doomed;
+
+    Snake(int id, Pilot pilot, long seed) {
+      this.id = id;
+      this.pilot = pilot;
+      this.rng = new SplittableRandom(seed);
+    }
+
+    public int headCell() {
+      return body[head];
+    }
+
+    public int length() {
+      return length;
+    }
+
+    public GameState.Dir dir() {
+      return dir;
+    }
+
+    public boolean isAlive() {
+      return alive;
+    }
+
+    public int score() {
+      return score;
+    }
+
+    /** Per-snake RNG; only use it from this snake's Pilot. */
+    public SplittableRandom rng() {
+      return rng;
+    }
+
+    int tailCell() {
+      int t = head - (length - 1);
+      return body[t < 0 ? t + body.length : t];
+    }
+
+    void push(int cell) {
+      if (length == body.length) { // unroll tail..head into a bigger ring
+        int[] nb = new int[body.length * 2];
+        for (int i = 0; i < length; i++) {
+          int k = head - (length - 1) + i;
+          nb[i] = body[k < 0 ? k + body.length : k];
+        }
+        body = nb;
+        head = length - 1;
+      }
+      if (++head == body.length)
+        head = 0;
+      body[head] = cell;
+      length++;
+    }
+  }
+
+  /** Below this many live snakes the intent phase stays on the calling thread. */
+  static final int PARALLEL_MIN = 64;
+
+  final int cols, rows, maxLen;
+  final Grid wall;
+  final Grid food;
+  final short[] occ; // body segments per cell
+  // free cells (no wall, no body) as an indexed set, as in GameState
+  private final int[] free, freePos;
+  private int freeCount;
+  // head claims for the current merge: claimTick[c] == tickNo means snake claimBy[c] took c
+  private final int[] claimTick, claimBy;
+
+  private final List<Snake> snakes = new ArrayList<>();
+  private final int[] apples;
+  private int appleCount, appleTarget = 1;
+  private final SplittableRandom rng;
+  private int tickNo;
+  private int alive;
+  private boolean parallel = true;
+
+  public Arena(int cols, int rows, long seed) {
+    if (cols < 2 || rows < 2 || cols > Config.MAX_BOARD || rows > Config.MAX_BOARD)
+      throw new IllegalArgumentException("Board " + cols + "x" + rows);
+    this.cols = cols;
+    this.rows = rows;
+    this.maxLen = cols * rows;
+    this.wall = new Grid(cols, rows);
+    this.food = new Grid(cols, rows);
+    this.occ = new short[maxLen];
+    this.free = new int[maxLen];
+    this.freePos = new int[maxLen];
+    this.claimTick = new int[maxLen];
+    this.claimBy = new int[maxLen];
+    this.apples = new int[maxLen];
+    this.rng = new SplittableRandom(seed);
+    rebuildFree();
+  }
+
+  /* ------------------------- Setup -------------------------- */
+  /** Walls to edit before adding snakes; call rebuildFree() afterwards. */
+  public Grid walls() {
+    return wall;
+  }
+
+  public void rebuildFree() {
+    freeCount = 0;
+    for (int y = 0, c = 0; y < rows; y++)
+      for (int x = 0; x < cols; x++, c++)
+        if (occ[c] == 0 && !wall.get(x, y)) {
+          freePos[c] = freeCount;
+          free[freeCount++] = c;
+        } else {
+          freePos[c] = -1;
+        }
+  }
+
+  /** How many apples to keep on the board. */
+  public void setAppleCount(int n) {
+    appleTarget = Math.max(0, n);
+    topUpApples();
+  }
+
+  /** Use all cores for the intent phase (default) or stay single-threaded. */
+  public void setParallel(boolean on) {
+    parallel = on;
+  }
+
+  /**
+   * Drop in a snake of {@code len} cells on a random free straight run.
+   * Returns null if no spot turned up.
+   */
+  public Snake addSnake(Pilot pilot, int len) {
+    GameState.Dir[] dirs = GameState.Dir.values();
+    for (int tries = 0; tries < 64 && freeCount > 0; tries++) {
+      int h = free[rng.nextInt(freeCount)];
+      GameState.Dir d = dirs[rng.nextInt(dirs.length)];
+      GameState.Dir back = opposite(d);
+      int[] cells = new int[len];
+      cells[0] = h;
+      boolean ok = !food.get(h);
+      for (int i = 1; i < len && ok; i++) {
+        cells[i] = step(cells[i - 1], back);
+        ok = cells[i] >= 0 && freePos[cells[i]] >= 0 && !food.get(cells[i]);
+        for (int j = 0; j < i && ok; j++)
+          ok = cells[j] != cells[i];
+      }
+      if (!ok)
+        continue;
+      Snake s = new Snake(snakes.size(), pilot, rng.nextLong());
+      s.dir = d;
+      for (int i = len - 1; i >= 0; i--) {
+        s.push(cells[i]);
+        enter(cells[i]);
+      }
+      snakes.add(s);
+      alive++;
+      return s;
+    }
+    return null;
+  }
+
+  /* -------------------------- Tick -------------------------- */
+  /** Advance every live snake one move; returns how many are still alive. */
+  public int tick() {
+    final int n = snakes.size();
+    if (parallel && alive >= PARALLEL_MIN)
+      IntStream.range(0, n).parallel().forEach(this::intent);
+    else
+      for (int i = 0; i < n; i++)
+        intent(i);
+    merge();
+    topUpApples();
+    return alive;
+  }
+
+  // Phase 1: read-only on the board, writes only snake i.
+  private void intent(int i) {
+    Snake s = snakes.get(i);
+    if (!s.alive)
+      return;
+    GameState.Dir d = s.pilot.steer(this, s);
+    if (d != null && !s.dir.isOpposite(d))
+      s.dir = d;
+    s.next = step(s.headCell(), s.dir);
+  }
+
+  // Phase 2: sequential, in id order.
+  private void merge() {
+    final int t = ++tickNo;
+    final int n = snakes.size();
+
+    // a) tails that will move leave their cells first
+    for (int i = 0; i < n; i++) {
+      Snake s = snakes.get(i);
+      if (!s.alive)
+        continue;
+      s.doomed = false;
+      if (s.grow > 0) {
+        s.grow--;
+      } else {
+        leave(s.tailCell());
+        s.length--;
+      }
+    }
+
+    // b) head-on: every snake aiming at an already claimed cell dies with the claimer
+    for (int i = 0; i < n; i++) {
+      Snake s = snakes.get(i);
+      if (!s.alive)
+        continue;
+      int c = s.next;
+      if (c < 0) {
+        s.doomed = true; // off the edge (no wrap)
+        continue;
+      }
+      if (claimTick[c] == t) {
+        s.doomed = true;
+        snakes.get(claimBy[c]).doomed = true;
+      } else {
+        claimTick[c] = t;
+        claimBy[c] = i;
+      }
+    }
+
+    // c) walls and bodies; survivors move in
+    for (int i = 0; i < n; i++) {
+      Snake s = snakes.get(i);
+      if (!s.alive || s.doomed)
+        continue;
+      int c = s.next;
+      if (wall.get(c) || occ[c] > 0)
+        s.doomed = true;
+    }
+    for (int i = 0; i < n; i++) {
+      Snake s = snakes.get(i);
+      if (!s.alive || s.doomed)
+        continue;
+      s.push(s.next);
+      enter(s.next);
+    }
+
+    // d) the dead leave the board
+    for (int i = 0; i < n; i++) {
+      Snake s = snakes.get(i);
+      if (!s.alive || !s.doomed)
+        continue;
+      for (int k = 0; k < s.length; k++) {
+        int j = s.head - k;
+        leave(s.body[j < 0 ? j + s.body.length : j]);
+      }
+      s.length = 0;
+      s.alive = false;
+      alive--;
+    }
+
+    // e) apples
+    for (int i = 0; i < n; i++) {
+      Snake s = snakes.get(i);
+      if (s.alive && food.get(s.headCell())) {
+        eatApple(s.headCell());
+        s.grow++;
+        s.score += 10;
+      }
+    }
+  }
+
+  /* ------------------------- Apples ------------------------- */
+  private void topUpApples() {
+    int guard = 0;
+    while (appleCount < appleTarget && appleCount < freeCount && guard++ < 4 * appleTarget + 16) {
+      int c = free[rng.nextInt(freeCount)];
+      if (food.get(c))
+        continue;
+      food.set(cellX(c), cellY(c));
+      apples[appleCount++] = c;
+    }
+  }
+
+  private void eatApple(int c) {
+    food.clear(cellX(c), cellY(c));
+    for (int i = 0; i < appleCount; i++)
+      if (apples[i] == c) {
+        apples[i] = apples[--appleCount];
+        break;
+      }
+  }
+
+  /* ------------------------ Free set ------------------------ */
+  private void enter(int c) {
+    if (occ[c]++ == 0) {
+      int p = freePos[c];
+      if (p >= 0) {
+        int last = free[--freeCount];
+        free[p] = last;
+        freePos[last] = p;
+        freePos[c] = -1;
+      }
+    }
+  }
+
+  private void leave(int c) {
+    if (--occ[c] == 0 && freePos[c] < 0 && !wall.get(c)) {
+      freePos[c] = freeCount;
+      free[freeCount++] = c;
+    }
+  }
+
+  /* ------------------------ Queries ------------------------- */
+  public int cols() {
+    return cols;
+  }
+
+  public int rows() {
+    return rows;
+  }
+
+  public int cell(int x, int y) {
+    return y * cols + x;
+  }
+
+  public int cellX(int cell) {
+    return cell % cols;
+  }
+
+  public int cellY(int cell) {
+    return cell / cols;
+  }
+
+  /** Neighbouring cell in direction d, or -1 off the edge when walls don't wrap. */
+  public int step(int cell, GameState.Dir d) {
+    int x = cell % cols, y = cell / cols;
+    switch (d) {
+      case LEFT -> x--;
+      case RIGHT -> x++;
+      case UP -> y--;
+      case DOWN -> y++;
+    }
+    if (Config.WRAP_WALLS) {
+      x = (x + cols) % cols;
+      y = (y + rows) % rows;
+    } else if (x < 0 || x >= cols || y < 0 || y >= rows) {
+      return -1;
+    }
+    return y * cols + x;
+  }
+
+  /** No wall and no body (as of the last merge). */
+  public boolean isFree(int cell) {
+    return freePos[cell] >= 0;
+  }
+
+  public boolean isFood(int cell) {
+    return food.get(cell);
+  }
+
+  public int appleCount() {
+    return appleCount;
+  }
+
+  /** Apple cell by index in 0..appleCount(). */
+  public int apple(int i) {
+    return apples[i];
+  }
+
+  public List<Snake> snakes() {
+    return Collections.unmodifiableList(snakes);
+  }
+
+  public int alive() {
+    return alive;
+  }
+
+  public int ticks() {
+    return tickNo;
+  }
+
+  private static GameState.Dir opposite(GameState.Dir d) {
+    return switch (d) {
+      case LEFT -> GameState.Dir.RIGHT;
+      case RIGHT -> GameState.Dir.LEFT;
+      case UP -> GameState.Dir.DOWN;
+      case DOWN -> GameState.Dir.UP;
+    };
+  }
+
+  /* ------------------------- Pilots ------------------------- */
+  /**
+   * Simple bot: chase a randomly chosen apple, never step into a wall or body
+   * if any other move is open, and swerve now and then.
+   */
+  public static Pilot greedy() {
+    return (a, s) -> {
+      if (s.target < 0 || !a.isFood(s.target))
+        s.target = (a.appleCount() > 0) ? a.apple(s.rng.nextInt(a.appleCount())) : -1;
+      int h = s.headCell();
+      GameState.Dir best = null;
+      int bestScore = Integer.MIN_VALUE;
+      for (GameState.Dir d : GameState.Dir.values()) {
+        if (s.dir.isOpposite(d))
+          continue;
+        int c = a.step(h, d);
+        if (c < 0 || !a.isFree(c))
+          continue;
+        int score = (s.target >= 0) ? -a.distance(c, s.target) : 0;
+        score = score * 4 + s.rng.nextInt(3); // small jitter breaks ties and loops
+        if (best == null || score > bestScore) {
+          best = d;
+          bestScore = score;
+        }
+      }
+      return best; // null: boxed in, keep going
+    };
+  }
+
+  /** Manhattan distance, measured around the edges when walls wrap. */
+  public int distance(int a, int b) {
+    int dx = Math.abs(cellX(a) - cellX(b)), dy = Math.abs(cellY(a) - cellY(b));
+    if (Config.WRAP_WALLS) {
+      dx = Math.min(dx, cols - dx);
+      dy = Math.min(dy, rows - dy);
+    }
+    return dx + dy;
+  }
+
+  /* ------------------------ Benchmark ----------------------- */
+  /**
+   * Throughput check: {@code java Anesk.Arena [cols rows maxSnakes ticks]}.
+   * Runs greedy bots at doubling snake counts, sequential vs parallel intent,
+   * and prints snake-moves per second.
+   */
+  public static void main(String[] args) {
+    int cols = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+    int rows = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+    int maxSnakes = args.length > 2 ? Integer.parseInt(args[2]) : 512;
+    int ticks = args.length > 3 ? Integer.parseInt(args[3]) : 500;
+    System.out.printf("Arena %dx%d, %d ticks, %d cores%n", cols, rows, ticks,
+        Runtime.getRuntime().availableProcessors());
+    for (int n = 8; n <= maxSnakes; n *= 2) {
+      double seq = run(cols, rows, n, ticks, false);
+      double par = run(cols, rows, n, ticks, true);
+      System.out.printf("%5d snakes: %,12.0f moves/s seq  %,12.0f moves/s par%n", n, seq, par);
+    }
+  }
+
+  private static double run(int cols, int rows, int n, int ticks, boolean parallel) {
+    Arena a = new Arena(cols, rows, 42);
+    a.setParallel(parallel);
+    a.setAppleCount(Math.max(1, n / 2));
+    Pilot bot = greedy();
+    for (int i = 0; i < n; i++)
+      a.addSnake(bot, Simulator.START_LENGTH);
+    long moves = 0, t0 = System.nanoTime();
+    for (int t = 0; t < ticks && a.alive() > 0; t++) {
+      moves += a.alive();
+      a.tick();
+    }
+    return moves * 1e9 / (System.nanoTime() - t0);
+  }
+}
@@ -0,0 +1,456 @@
+package Anesk;
+
+import java.util.Arrays;
+
+/**
+ * K independent classic games advanced in lockstep, stored as flat
+ * structure-of-arrays (bot training, seed sweeps).
+ * - Same rules and the same random draws as Simulator.tick() on a
+ *   GameState with the same seed and inputs: wrap via Config.WRAP_WALLS,
+ *   apples, bonus shards, growth, wall and self collisions
+ * - Per game: a ring of packed cells, an occupancy bitboard, a free-cell
+ *   set, and the java.util.Random state inlined as one long
+ * - Growth is a pending counter instead of duplicated tail slots, so a cell
+ *   is either occupied or not and one bit per cell is enough
+ * - Progress (XP, levels, speed, multiplier) only changes timing, so it is
+ *   not simulated; neither are power-ups or invincibility
+ */
+public final class BatchSim {
+  private static final int[] DX = { -1, 1, 0, 0 }; // GameState.Dir order
+  private static final int[] DY = { 0, 0, -1, 1 };
+  private static final int[] OPP = { 1, 0, 3, 2 };
+
+  // java.util.Random's LCG
+  private static final long MULT = 0x5DEECE66DL, ADD = 0xBL, MASK = (1L << 48) - 1;
+
+  public final int games, cols, rows;
+  private final int cells, wpg; // cells per game, occupancy words per game
+  private final Grid wall; // shared by every game, or null
+
+  // per game
+  private final int[] head, len, grow, score, ticks, apple, bonus, bonusTicks, freeCount, next;
+  private final byte[] dir, dead;
+  private final long[] rng;
+  // per game x cell (game k's slice starts at k * cells)
+  private final int[] body, free, freePos;
+  // per game x word (bit = packed cell)
+  private final long[] occ;
+
+  // every game starts from the same board, so reset() copies this template
+  private final int[] startBody, startFree, startFreePos;
+  private final long[] startOcc;
+  private final int startFreeCount;
+
+  private int alive;
+
+  /** {@code walls} is shared by all games (null for an open board). */
+  public BatchSim(int games, int cols, int rows, Grid walls) {
+    // same bounds as GameState.resize(): a one-bit occupancy can't hold a start body wrapped onto itself
+    if (games <= 0 || cols < Simulator.START_LENGTH || rows < 2 || cols > Config.MAX_BOARD
+        || rows > Config.MAX_BOARD)
+      throw new IllegalArgumentException(games + " games of " + cols + "x" + rows);
+    if (walls != null && (walls.cols != cols || walls.rows != rows))
+      throw new IllegalArgumentException("Walls " + walls.cols + "x" + walls.rows + " vs " + cols + "x" + rows);
+    this.games = games;
+    this.cols = cols;
+    this.rows = rows;
+    this.cells = cols * rows;
+    this.wpg = (cells + 63) >>> 6;
+    this.wall = walls;
+
+    head = new int[games];
+    len = new int[games];
+    grow = new int[games];
+    score = new int[games];
+    ticks = new int[games];
+    apple = new int[games];
+    bonus = new int[games];
+    bonusTicks = new int[games];
+    freeCount = new int[games];
+    next = new int[games];
+    dir = new byte[games];
+    dead = new byte[games];
+    rng = new long[games];
+    body = new int[games * cells];
+    free = new int[games * cells];
+    freePos = new int[games * cells];
+    occ = new long[games * wpg];
+    Arrays.fill(dead, (byte) 1);
+
+    // start board, laid out as Simulator.start(null) + GameState.placeBody()
+    int cx = cols / 2, cy = rows / 2;
+    if (isWall(cy * cols + cx)) {
+      cx = 2;
+      cy = 2;
+    }
+    final int n = Simulator.START_LENGTH;
+    startBody = new int[n];
+    startOcc = new long[wpg];
+    for (int i = 0, x = cx; i < n; i++) {
+      int c = cy * cols + x;
+      startBody[n - 1 - i] = c;
+      startOcc[c >>> 6] |= 1L << c;
+      x = (x - 1 + cols) % cols;
+    }
+    startFree = new int[cells];
+    startFreePos = new int[cells];
+    int fc = 0;
+    for (int c = 0; c < cells; c++) {
+      if ((startOcc[c >>> 6] & (1L << c)) == 0 && !isWall(c)) {
+        startFreePos[c] = fc;
+        startFree[fc++] = c;
+      } else {
+        startFreePos[c] = -1;
+      }
+    }
+    startFreeCount = fc;
+  }
+
+  /* ------------------------- Setup -------------------------- */
+  /** Game k = seed + k for every k. */
+  public void resetAll(long baseSeed) {
+    for (int k = 0; k < games; k++)
+      reset(k, baseSeed + k);
+  }
+
+  /** Same start as Simulator.start(null) on a fresh GameState(seed). */
+  public void reset(int k, long seed) {
+    rng[k] = (seed ^ MULT) & MASK;
+    if (dead[k] == 0)
+      alive--;
+    dead[k] = 0;
+    alive++;
+    score[k] = 0;
+    ticks[k] = 0;
+    grow[k] = 0;
+    bonus[k] = -1;
+    bonusTicks[k] = 0;
+    dir[k] = (byte) GameState.Dir.RIGHT.ordinal();
+
+    final int b = k * cells, n = startBody.length;
+    len[k] = n;
+    head[k] = n - 1;
+    System.arraycopy(startBody, 0, body, b, n);
+    System.arraycopy(startOcc, 0, occ, k * wpg, wpg);
+    System.arraycopy(startFree, 0, free, b, startFreeCount);
+    System.arraycopy(startFreePos, 0, freePos, b, cells);
+    freeCount[k] = startFreeCount;
+    apple[k] = -1;
+    spawnApple(k);
+  }
+
+  /* -------------------------- Step -------------------------- */
+  /**
+   * One tick for every live game. {@code input[k]} is a GameState.Dir
+   * ordinal, or -1 to keep going. Returns how many games are still alive.
+   */
+  public int step(byte[] input) {
+    // Phase 1: steering and next head for all games (branch-light, flat arrays)
+    for (int k = 0; k < games; k++) {
+      int d = dir[k];
+      int in = input[k];
+      if (in >= 0 && in != OPP[d])
+        d = in;
+      dir[k] = (byte) d;
+      int c = body[k * cells + head[k]];
+      int x = c % cols + DX[d], y = c / cols + DY[d];
+      if (Config.WRAP_WALLS) {
+        x = (x + cols) % cols;
+        y = (y + rows) % rows;
+      }
+      next[k] = (x < 0 || x >= cols || y < 0 || y >= rows) ? -1 : y * cols + x;
+    }
+
+    // Phase 2: per-game resolve, same order as Simulator.tick()
+    for (int k = 0; k < games; k++) {
+      if (dead[k] != 0)
+        continue;
+      ticks[k]++;
+      int c = next[k];
+      if (c < 0) {
+        kill(k);
+        continue;
+      }
+      final int b = k * cells;
+
+      // move: the tail stays put while growth is pending
+      if (grow[k] > 0) {
+        grow[k]--;
+      } else {
+        int t = head[k] - (len[k] - 1);
+        leave(k, body[b + (t < 0 ? t + cells : t)]);
+        len[k]--;
+      }
+      if (++head[k] == cells)
+        head[k] = 0;
+      body[b + head[k]] = c;
+      len[k]++;
+      boolean hit = occupied(k, c);
+      enter(k, c);
+
+      if (apple[k] < 0 && freeCount[k] > 0)
+        spawnApple(k);
+
+      if (isWall(c) || hit) {
+        kill(k);
+        continue;
+      }
+
+      if (c == apple[k]) {
+        score[k] += 10;
+        growOne(k);
+        spawnApple(k);
+        if (bonus[k] < 0 && nextDouble(k) < Config.BONUS_SPAWN_CHANCE)
+          spawnBonus(k);
+      }
+
+      if (bonus[k] >= 0) {
+        if (c == bonus[k]) {
+          score[k] += Config.BONUS_POINTS;
+          growOne(k);
+          growOne(k);
+          bonus[k] = -1;
+        } else if (--bonusTicks[k] <= 0) {
+          bonus[k] = -1;
+        }
+      }
+    }
+    return alive;
+  }
+
+  private void kill(int k) {
+    dead[k] = 1;
+    alive--;
+  }
+
+  private void growOne(int k) {
+    if (len[k] + grow[k] < cells)
+      grow[k]++;
+  }
+
+  /* ------------------------- Spawns ------------------------- */
+  private void spawnApple(int k) {
+    apple[k] = randomFreeCell(k, bonus[k]);
+  }
+
+  private void spawnBonus(int k) {
+    int c = randomFreeCell(k, apple[k]);
+    if (c < 0)
+      return;
+    bonus[k] = c;
+    bonusTicks[k] = Config.BONUS_LIFE_TICKS;
+  }
+
+  // Mirrors GameState.randomFreeCell, draw for draw.
+  private int randomFreeCell(int k, int exclude) {
+    final int b = k * cells;
+    int fc = freeCount[k], n = fc;
+    int p = (exclude >= 0) ? freePos[b + exclude] : -1;
+    if (p >= 0)
+      n--;
+    if (n <= 0)
+      return -1;
+    int r = nextInt(k, n);
+    if (r == p)
+      r = fc - 1;
+    return free[b + r];
+  }
+
+  /* ------------------------ Free set ------------------------ */
+  private boolean occupied(int k, int c) {
+    return (occ[k * wpg + (c >>> 6)] & (1L << c)) != 0;
+  }
+
+  private boolean isWall(int c) {
+    return wall != null && wall.get(c);
+  }
+
+  private void enter(int k, int c) {
+    int w = k * wpg + (c >>> 6);
+    long bit = 1L << c;
+    if ((occ[w] & bit) != 0)
+      return;
+    occ[w] |= bit;
+    final int b = k * cells;
+    int p = freePos[b + c];
+    if (p < 0)
+      return;
+    int last = free[b + --freeCount[k]];
+    free[b + p] = last;
+    freePos[b + last] = p;
+    freePos[b + c] = -1;
+  }
+
+  private void leave(int k, int c) {
+    occ[k * wpg + (c >>> 6)] &= ~(1L << c);
+    final int b = k * cells;
+    if (freePos[b + c] >= 0 || isWall(c))
+      return;
+    freePos[b + c] = freeCount[k];
+    free[b + freeCount[k]++] = c;
+  }
+
+  /* ------------------ java.util.Random, inlined ------------- */
+  private int nextBits(int k, int bits) {
+    long s = (rng[k] * MULT + ADD) & MASK;
+    rng[k] = s;
+    return (int) (s >>> (48 - bits));
+  }
+
+  private int nextInt(int k, int bound) {
+    int r = nextBits(k, 31);
+    int m = bound - 1;
+    if ((bound & m) == 0)
+      return (int) ((bound * (long) r) >> 31);
+    for (int u = r; u - (r = u % bound) + m < 0; u = nextBits(k, 31))
+      ;
+    return r;
+  }
+
+  private double nextDouble(int k) {
+    return (((long) nextBits(k, 26) << 27) + nextBits(k, 27)) * 0x1.0p-53;
+  }
+
+  /* ------------------------ Queries ------------------------- */
+  public int alive() {
+    return alive;
+  }
+
+  public boolean isDead(int k) {
+    return dead[k] != 0;
+  }
+
+  public int score(int k) {
+    return score[k];
+  }
+
+  /** Segments on the board, counting growth still to come (as GameState.length()). */
+  public int length(int k) {
+    return len[k] + grow[k];
+  }
+
+  public int headCell(int k) {
+    return body[k * cells + head[k]];
+  }
+
+  public int apple(int k) {
+    return apple[k];
+  }
+
+  public int bonus(int k) {
+    return bonus[k];
+  }
+
+  public int ticks(int k) {
+    return ticks[k];
+  }
+
+  public GameState.Dir dir(int k) {
+    return GameState.Dir.values()[dir[k]];
+  }
+
+  /* ------------------------ Benchmark ----------------------- */
+  /**
+   * {@code java Anesk.BatchSim [games ticks]}: random play with auto-reset,
+   * batch vs one GameState + Simulator per game, in game-steps per second.
+   * {@code java Anesk.BatchSim check}: cross-check against Simulator instead.
+   */
+  public static void main(String[] args) {
+    if (args.length > 0 && args[0].equals("check")) {
+      int[][] boards = { { 4, 2 }, { 4, 3 }, { 5, 5 }, { 4, 8 }, { 7, 3 }, { Config.COLS, Config.ROWS } };
+      for (int[] b : boards) {
+        crossCheck(b[0], b[1], 500, 2000);
+        System.out.printf("%dx%d: batch matches Simulator%n", b[0], b[1]);
+      }
+      return;
+    }
+    int k = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+    int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+    for (int round = 0; round < 3; round++) // the first rounds are JIT warm-up
+      System.out.printf("%d games x %d ticks: batch %,.0f steps/s, objects %,.0f steps/s%n",
+          k, ticks, runBatch(k, ticks), runObjects(k, ticks));
+  }
+
+  /**
+   * Play {@code k} games in lockstep on both engines (random turns, half of
+   * them steering at the apple, dead games reseeded) and compare liveness,
+   * score, length, head, apple and bonus after every tick.
+   */
+  static void crossCheck(int cols, int rows, int k, int ticks) {
+    BatchSim b = new BatchSim(k, cols, rows, null);
+    b.resetAll(100);
+    Simulator[] sims = new Simulator[k];
+    for (int i = 0; i < k; i++) {
+      sims[i] = new Simulator(new GameState(100 + i));
+      sims[i].start(null, cols, rows);
+    }
+    GameState.Dir[] dirs = GameState.Dir.values();
+    java.util.SplittableRandom r = new java.util.SplittableRandom(5);
+    byte[] in = new byte[k];
+    long seed = 10_000;
+    for (int t = 0; t < ticks; t++) {
+      for (int i = 0; i < k; i++) {
+        GameState g = sims[i].state();
+        in[i] = (byte) (r.nextInt(3) == 0 ? r.nextInt(4) : -1);
+        if (r.nextInt(2) == 0 && g.appleX >= 0) {
+          int hx = g.cellX(g.headCell()), hy = g.cellY(g.headCell());
+          in[i] = (byte) (hx < g.appleX ? 1 : hx > g.appleX ? 0 : hy < g.appleY ? 3 : 2);
+        }
+      }
+      b.step(in);
+      for (int i = 0; i < k; i++) {
+        GameState g = sims[i].state();
+        boolean alive = sims[i].tick(in[i] < 0 ? null : dirs[in[i]]);
+        int apple = g.appleX < 0 ? -1 : g.cell(g.appleX, g.appleY);
+        int bonus = g.bonusActive ? g.cell(g.bonusX, g.bonusY) : -1;
+        if (alive == b.isDead(i) || g.score() != b.score(i) || g.length() != b.length(i)
+            || alive && (g.headCell() != b.headCell(i) || apple != b.apple(i) || bonus != b.bonus(i)))
+          throw new IllegalStateException(String.format("%dx%d game %d tick %d: alive %b/%b score %d/%d length %d/%d",
+              cols, rows, i, t, alive, !b.isDead(i), g.score(), b.score(i), g.length(), b.length(i)));
+        if (!alive) {
+          long sd = seed++;
+          sims[i] = new Simulator(new GameState(sd));
+          sims[i].start(null, cols, rows);
+          b.reset(i, sd);
+        }
+      }
+    }
+  }
+
+  private static double runBatch(int k, int ticks) {
+    BatchSim b = new BatchSim(k, Config.COLS, Config.ROWS, null);
+    b.resetAll(1);
+    byte[] in = new byte[k];
+    java.util.SplittableRandom r = new java.util.SplittableRandom(7);
+    long seed = k + 1, t0 = System.nanoTime();
+    for (int t = 0; t < ticks; t++) {
+      for (int i = 0; i < k; i++)
+        in[i] = (byte) (r.nextInt(4) == 0 ? r.nextInt(4) : -1);
+      b.step(in);
+      for (int i = 0; i < k; i++)
+        if (b.isDead(i))
+          b.reset(i, seed++);
+    }
+    return (double) k * ticks * 1e9 / (System.nanoTime() - t0);
+  }
+
+  private static double runObjects(int k, int ticks) {
+    Simulator[] sims = new Simulator[k];
+    for (int i = 0; i < k; i++) {
+      sims[i] = new Simulator(new GameState(1 + i));
+      sims[i].start(null);
+    }
+    GameState.Dir[] dirs = GameState.Dir.values();
+    java.util.SplittableRandom r = new java.util.SplittableRandom(7);
+    long seed = k + 1, t0 = System.nanoTime();
+    for (int t = 0; t < ticks; t++) {
+      for (int i = 0; i < k; i++) {
+        if (!sims[i].tick(r.nextInt(4) == 0 ? dirs[r.nextInt(4)] : null)) {
+          sims[i] = new Simulator(new GameState(seed++));
+          sims[i].start(null);
+        }
+      }
+    }
+    return (double) k * ticks * 1e9 / (System.nanoTime() - t0);
+  }
+}
@@ -0,0 +1,119 @@
+package Anesk;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * Cached static board layer: background, grid lines and walls.
+ * - Rendered once into an accelerated VolatileImage (a BufferedImage when no
+ *   screen config exists, e.g. headless) and blitted every frame
+ * - Re-rendered only when the board size, tile size or walls change
+ *   (GameState.wallVersion), on invalidate(), or when the surface is lost
+ * - invalidate() may come from the EDT while another thread paints: it bumps
+ *   a counter, so one landing mid-render forces the next render instead of
+ *   being cleared with it
+ * - Boards larger than MAX_PX per side are not cached; paint() returns false
+ *   and the caller draws the visible cells directly with drawStatic()
+ */
+final class BoardLayer {
+  static final int MAX_PX = 4096;
+
+  private Image img;
+  private int cols, rows, tile, wallVersion = -1;
+  private boolean dirty = true; // painting thread only
+  private final java.util.concurrent.atomic.AtomicInteger requested = new java.util.concurrent.atomic.AtomicInteger();
+  private int rendered; // requested count the surface reflects
+
+  /** Force a re-render on next paint (map change, mode toggle); any thread. */
+  void invalidate() {
+    requested.incrementAndGet();
+  }
+
+  /** Drop the surface (e.g. when the panel goes away). */
+  void flush() {
+    if (img != null)
+      img.flush();
+    img = null;
+    dirty = true;
+  }
+
+  /**
+   * Blit the layer with cell (0, 0) at (ox, oy). Returns false if the board
+   * is too large to cache or the surface kept getting lost.
+   */
+  boolean paint(Graphics2D g, GameState game, SpriteBank.Atlas sprites, int ox, int oy, GraphicsConfiguration gc) {
+    final int t = sprites.tile;
+    int w = game.cols * t + 1, h = game.rows * t + 1; // +1: closing grid line
+    if (w > MAX_PX || h > MAX_PX)
+      return false;
+    if (game.cols != cols || game.rows != rows || t != tile || game.wallVersion != wallVersion) {
+      cols = game.cols;
+      rows = game.rows;
+      tile = t;
+      wallVersion = game.wallVersion;
+      dirty = true;
+    }
+    if (img != null && (img.getWidth(null) != w || img.getHeight(null) != h))
+      flush();
+
+    for (int tries = 0; tries < 3; tries++) {
+      if (img == null) {
+        img = (gc != null) ? gc.createCompatibleVolatileImage(w, h, Transparency.OPAQUE)
+            : new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        dirty = true;
+      }
+      if (img instanceof VolatileImage v) {
+        int status = v.validate(gc);
+        if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+          flush();
+          continue;
+        }
+        if (status == VolatileImage.IMAGE_RESTORED)
+          dirty = true;
+      }
+      int req = requested.get();
+      if (dirty || req != rendered) {
+        render(game, sprites);
+        dirty = false;
+        rendered = req; // a later invalidate() keeps req != rendered
+      }
+      g.drawImage(img, ox, oy, null);
+      if (!(img instanceof VolatileImage v) || !v.contentsLost())
+        return true;
+      dirty = true;
+    }
+    return false;
+  }
+
+  private void render(GameState game, SpriteBank.Atlas sprites) {
+    Graphics2D g = (img instanceof VolatileImage v) ? v.createGraphics() : ((BufferedImage) img).createGraphics();
+    try {
+      g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      g.setColor(Config.BG);
+      g.fillRect(0, 0, img.getWidth(null), img.getHeight(null));
+      drawStatic(g, game, sprites, 0, 0, 0, 0, game.cols, game.rows);
+    } finally {
+      g.dispose();
+    }
+  }
+
+  /** Grid lines and wall tiles for cells [x0, x1) x [y0, y1), cell (0, 0) at (ox, oy). */
+  static void drawStatic(Graphics2D g, GameState game, SpriteBank.Atlas sprites, int ox, int oy,
+      int x0, int y0, int x1, int y1) {
+    final int t = sprites.tile;
+    if (Config.SHOW_GRID && t >= 6) {
+      g.setColor(Config.GRID);
+      int top = oy + y0 * t, bottom = oy + y1 * t;
+      int left = ox + x0 * t, right = ox + x1 * t;
+      for (int x = x0; x <= x1; x++)
+        g.drawLine(ox + x * t, top, ox + x * t, bottom);
+      for (int y = y0; y <= y1; y++)
+        g.drawLine(left, oy + y * t, right, oy + y * t);
+    }
+
+    for (int y = y0; y < y1; y++)
+      for (int x = game.wall.nextSet(y, x0); x >= 0 && x < x1; x = game.wall.nextSet(y, x + 1))
+        sprites.drawWall(g, ox + x * t, oy + y * t);
+  }
+}
@@ -7,6 +7,10 @@ public final class Config {
   public static final int TILE = 26;
   public static final int COLS = 30;
   public static final int ROWS = 25;
+  public static final int MAX_BOARD = 4096; // per side; runtime boards up to this
+  public static final int MIN_TILE = 10; // smallest tile before the view scrolls
+  public static final int ARENA_COLS = 1000; // "mega arena" mode
+  public static final int ARENA_ROWS = 1000;
 
   // Game
   public static final int[] SPEEDS_MS = { 130, 100, 75, 55 };
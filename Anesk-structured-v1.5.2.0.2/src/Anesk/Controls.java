@@ -84,6 +84,72 @@ public final class Controls {
     map(im, am, "ESCAPE", a.getOrDefault(KeyAction.BACK_TO_START, NOOP));
   }
 
+  // --- input queue ---------------------------------------------------
+
+  /**
+   * Direction presses between ticks, in order. Single producer (the key
+   * actions on the EDT) and single consumer (the tick thread), so a plain
+   * ring with two volatile counters is enough — no locks.
+   * - offer() drops presses that repeat or reverse the last queued direction
+   * - each tick takes at most one press with poll(), which records how long
+   *   it waited (key-to-tick latency)
+   */
+  public static final class InputQueue {
+    private static final int CAP = 4; // power of two; more than this feels laggy
+
+    private final GameState.Dir[] dirs = new GameState.Dir[CAP];
+    private final long[] stamps = new long[CAP];
+    private volatile long head; // next to poll (consumer)
+    private volatile long tail; // next to fill (producer)
+    private GameState.Dir last = GameState.Dir.RIGHT; // producer side
+    private final TimingRing latency = new TimingRing(256);
+
+    /**
+     * Forget pending presses; {@code current} is the snake's direction now.
+     * Only while the consumer is idle (the caller holds the game lock).
+     */
+    public void clear(GameState.Dir current) {
+      head = tail;
+      last = current;
+    }
+
+    /** Queue a press. False if it was redundant, a reversal, or the queue is full. */
+    public boolean offer(GameState.Dir d) {
+      if (d == last || last.isOpposite(d))
+        return false;
+      long t = tail;
+      if (t - head == CAP)
+        return false;
+      int i = (int) (t & (CAP - 1));
+      dirs[i] = d;
+      stamps[i] = System.nanoTime();
+      tail = t + 1; // publish
+      last = d;
+      return true;
+    }
+
+    /** Oldest pending press, or null. Call once per tick. */
+    public GameState.Dir poll() {
+      long h = head;
+      if (h == tail)
+        return null;
+      int i = (int) (h & (CAP - 1));
+      GameState.Dir d = dirs[i];
+      latency.add(System.nanoTime() - stamps[i]);
+      head = h + 1;
+      return d;
+    }
+
+    public int size() {
+      return (int) (tail - head);
+    }
+
+    /** Nanoseconds from key press to the tick that applied it. */
+    public TimingRing latency() {
+      return latency;
+    }
+  }
+
   // --- helpers -------------------------------------------------------
 
   private static void map(InputMap im, ActionMap am, String key, Runnable r) {
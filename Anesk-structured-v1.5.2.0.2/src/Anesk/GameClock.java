@@ -0,0 +1,50 @@
+package Anesk;
+
+/**
+ * Where game code reads "now" (nanoseconds) instead of calling System directly.
+ * - SYSTEM is the wall clock (System.nanoTime())
+ * - Virtual only moves when told to: the simulator advances one per tick by
+ *   the tick period, the panel syncs one from its time source once per frame,
+ *   and headless runs can step it as fast as they like
+ */
+public interface GameClock {
+  GameClock SYSTEM = System::nanoTime;
+
+  long nanos();
+
+  default long millis() {
+    return nanos() / 1_000_000L;
+  }
+
+  /** Manually driven clock; one writer, any number of readers. */
+  final class Virtual implements GameClock {
+    private volatile long now;
+
+    public Virtual() {
+    }
+
+    public Virtual(long startNs) {
+      now = startNs;
+    }
+
+    @Override
+    public long nanos() {
+      return now;
+    }
+
+    public void advance(long ns) {
+      now += ns;
+    }
+
+    public void set(long ns) {
+      now = ns;
+    }
+
+    /** Snapshot {@code src} (one read), so later readers skip the syscall. */
+    public long sync(GameClock src) {
+      long t = src.nanos();
+      now = t;
+      return t;
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package Anesk;
+
+/**
+ * Preallocated ring of compact game events (type + two int args).
+ * - The tick path publishes: a few array stores, no locks, no allocation,
+ *   and never waits on audio, prefs or Swing
+ * - Subscribers (audio, persistence, UI) run later, in drain(), on the EDT
+ * - One producer at a time (Anesk publishes while holding the game monitor)
+ *   and one consumer thread; a full ring drops the new event and counts it
+ */
+public final class GameEvents {
+
+  public enum Type {
+    APPLE, // a = score
+    BONUS_SPAWN,
+    BONUS, // a = score
+    LEVEL_UP, // a = level
+    SPEED, // a = speed index
+    XP, // a = level, b = xp (persist)
+    BOARD_FULL,
+    DEATH, // a = score
+    UNLOCK // a = skin ordinal, b = HUD flash ticks
+  }
+
+  /** Receives drained events, in publish order. */
+  public interface Subscriber {
+    void on(Type type, int a, int b);
+  }
+
+  private static final Type[] TYPES = Type.values();
+
+  private final byte[] type;
+  private final int[] argA, argB;
+  private final int mask;
+  private volatile long head; // next slot to write (producer)
+  private volatile long tail; // next slot to read (consumer)
+  private volatile long dropped;
+  private Subscriber[] subs = new Subscriber[0];
+
+  /** capacity is rounded up to a power of two. */
+  public GameEvents(int capacity) {
+    int cap = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+    type = new byte[cap];
+    argA = new int[cap];
+    argB = new int[cap];
+    mask = cap - 1;
+  }
+
+  /** Add a subscriber; drained events reach subscribers in registration order. */
+  public synchronized void subscribe(Subscriber s) {
+    Subscriber[] next = java.util.Arrays.copyOf(subs, subs.length + 1);
+    next[subs.length] = s;
+    subs = next;
+  }
+
+  /* ------------------------ Producer ------------------------ */
+  public boolean publish(Type t) {
+    return publish(t, 0, 0);
+  }
+
+  public boolean publish(Type t, int a) {
+    return publish(t, a, 0);
+  }
+
+  /** Returns false (and counts a drop) if the ring is full. */
+  public boolean publish(Type t, int a, int b) {
+    long h = head;
+    if (h - tail > mask) {
+      dropped++;
+      return false;
+    }
+    int i = (int) h & mask;
+    type[i] = (byte) t.ordinal();
+    argA[i] = a;
+    argB[i] = b;
+    head = h + 1; // publishes the slot
+    return true;
+  }
+
+  /* ------------------------ Consumer ------------------------ */
+  /** Deliver everything published so far; returns the number of events. */
+  public int drain() {
+    Subscriber[] ss;
+    synchronized (this) {
+      ss = subs;
+    }
+    long t = tail, h = head;
+    for (long n = t; n < h; n++) {
+      int i = (int) n & mask;
+      Type ty = TYPES[type[i]];
+      int a = argA[i], b = argB[i];
+      tail = n + 1; // free the slot before callbacks (they may take a while)
+      for (Subscriber s : ss)
+        s.on(ty, a, b);
+    }
+    return (int) (h - t);
+  }
+
+  /** Discard pending events (consumer side). */
+  public void clear() {
+    tail = head;
+  }
+
+  public int pending() {
+    return (int) (head - tail);
+  }
+
+  /** Events lost to a full ring since start. */
+  public long dropped() {
+    return dropped;
+  }
+}
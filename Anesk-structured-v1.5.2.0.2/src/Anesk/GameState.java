@@ -0,0 +1,340 @@
+package Anesk;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Plain data for one game: board, snake, pickups, score and progress.
+ * No Swing and no clocks — Simulator mutates it, Anesk only reads it to paint.
+ */
+public final class GameState {
+
+  public enum Dir {
+    LEFT, RIGHT, UP, DOWN;
+
+    /** True if {@code d} would reverse straight back into the neck. */
+    public boolean isOpposite(Dir d) {
+      return switch (this) {
+        case LEFT -> d == RIGHT;
+        case RIGHT -> d == LEFT;
+        case UP -> d == DOWN;
+        case DOWN -> d == UP;
+      };
+    }
+  }
+
+  // Board (resized per run; the arrays below are indexed by packed cell)
+  int cols, rows, maxLen;
+  Grid wall;
+  int wallVersion; // bumped whenever the walls are rewritten (render caches key on it)
+
+  // Snake body: circular buffer of packed cells (y * cols + x).
+  // body[head] is the head; segment i sits i slots behind it, so a move
+  // writes one slot and growth duplicates the tail — both O(1).
+  int[] body;
+  int head;
+  int length;
+  int prevTail; // tail cell before the last move (for render interpolation)
+
+  // Segments per cell, kept in step with the ring (head in, tail out).
+  // A count rather than a bit because growth briefly stacks tail copies.
+  short[] occ;
+
+  // Free cells (no wall, no body) as an indexed set with swap-remove:
+  // free[0..freeCount) holds the cells, freePos[cell] is its slot or -1.
+  int[] free;
+  int[] freePos;
+  int freeCount;
+  Dir dir = Dir.RIGHT;
+
+  // Pickups (appleX == -1 while the board is full)
+  int appleX, appleY;
+  boolean bonusActive;
+  int bonusX, bonusY, bonusTicks;
+
+  // Score / progress (level + xp persist between runs)
+  int score;
+  int level = 1;
+  int xp;
+
+  // Game time: advanced by one tick period per tick (not the wall clock)
+  final GameClock.Virtual clock = new GameClock.Virtual();
+
+  // Score multiplier (meter drains by one tick period per tick)
+  int multTier = 1;
+  int multMeterMs;
+
+  // Speed
+  int speedIndex = Config.START_SPEED_INDEX;
+  int tickMs = Simulator.TICK_START;
+
+  // Power-ups
+  final PowerUps.Inventory inventory = new PowerUps.Inventory();
+  final PowerUps.Effects effects = new PowerUps.Effects();
+
+  // Run
+  long ticks;
+  boolean dead;
+  boolean boardFull;
+  boolean invincible;
+
+  // Cells whose look changed since the view last drained them; a full log
+  // (or a re-layout) just flags everything
+  private final int[] changed = new int[64];
+  private int changedCount;
+  private boolean changedAll = true;
+
+  // Seeded so a run can be replayed tick for tick
+  final long seed;
+  final Random rng;
+
+  public GameState(long seed) {
+    this(seed, Config.COLS, Config.ROWS);
+  }
+
+  public GameState(long seed, int cols, int rows) {
+    this.seed = seed;
+    this.rng = new Random(seed);
+    resize(cols, rows);
+  }
+
+  /**
+   * Switch board size. Reallocates only when the size changes; either way
+   * walls and body are cleared, so follow with placeBody().
+   */
+  void resize(int cols, int rows) {
+    // narrower than the start body, it would wrap onto itself
+    if (cols < Simulator.START_LENGTH || rows < 2 || cols > Config.MAX_BOARD || rows > Config.MAX_BOARD)
+      throw new IllegalArgumentException("Board " + cols + "x" + rows + " outside "
+          + Simulator.START_LENGTH + "x2.." + Config.MAX_BOARD);
+    if (cols != this.cols || rows != this.rows) {
+      this.cols = cols;
+      this.rows = rows;
+      maxLen = cols * rows;
+      wall = new Grid(cols, rows);
+      body = new int[maxLen];
+      occ = new short[maxLen];
+      free = new int[maxLen];
+      freePos = new int[maxLen];
+    } else {
+      wall.fill(false);
+      Arrays.fill(occ, (short) 0);
+    }
+    head = 0;
+    length = 0;
+    changedAll = true;
+  }
+
+  // -------- body ring helpers --------
+  int cell(int x, int y) {
+    return y * cols + x;
+  }
+
+  int cellX(int cell) {
+    return cell % cols;
+  }
+
+  int cellY(int cell) {
+    return cell / cols;
+  }
+
+  /** Packed cell of segment i (0 = head). */
+  int segment(int i) {
+    int k = head - i;
+    return body[k < 0 ? k + maxLen : k];
+  }
+
+  int headCell() {
+    return body[head];
+  }
+
+  int tailIndex() {
+    int t = head - (length - 1);
+    return t < 0 ? t + maxLen : t;
+  }
+
+  /** True if any body segment covers the cell. */
+  boolean occupied(int cell) {
+    return occ[cell] > 0;
+  }
+
+  boolean wallAt(int cell) {
+    return wall.get(cell);
+  }
+
+  boolean wallAt(int x, int y) {
+    return wall.get(x, y);
+  }
+
+  // -------- free-cell set --------
+  /** Rebuild from walls + body; call after the wall grid changes. */
+  void rebuildFree() {
+    freeCount = 0;
+    for (int y = 0, c = 0; y < rows; y++) {
+      for (int x = 0; x < cols; x++, c++) {
+        if (occ[c] == 0 && !wall.get(x, y)) {
+          freePos[c] = freeCount;
+          free[freeCount++] = c;
+        } else {
+          freePos[c] = -1;
+        }
+      }
+    }
+  }
+
+  private void addFree(int c) {
+    if (freePos[c] >= 0 || wallAt(c))
+      return;
+    freePos[c] = freeCount;
+    free[freeCount++] = c;
+  }
+
+  private void removeFree(int c) {
+    int p = freePos[c];
+    if (p < 0)
+      return;
+    int last = free[--freeCount];
+    free[p] = last;
+    freePos[last] = p;
+    freePos[c] = -1;
+  }
+
+  private void enter(int c) {
+    if (occ[c]++ == 0)
+      removeFree(c);
+  }
+
+  private void leave(int c) {
+    if (--occ[c] == 0)
+      addFree(c);
+  }
+
+  /**
+   * Uniform free cell other than {@code exclude} (pass -1 for none), or -1 if
+   * the board is full. O(1): one draw, with the excluded slot remapped to the end.
+   */
+  int randomFreeCell(int exclude) {
+    int n = freeCount;
+    int p = (exclude >= 0) ? freePos[exclude] : -1;
+    if (p >= 0)
+      n--;
+    if (n <= 0)
+      return -1;
+    int k = rng.nextInt(n);
+    if (k == p)
+      k = freeCount - 1;
+    return free[k];
+  }
+
+  /** Lay the body out from a head cell, stepping (-dx, -dy) per segment with wrap. */
+  void placeBody(int hx, int hy, int dx, int dy, int len) {
+    for (int i = 0; i < length; i++)
+      occ[segment(i)]--;
+    length = len;
+    head = len - 1;
+    int x = hx, y = hy;
+    for (int i = 0; i < len; i++) {
+      int c = cell(x, y);
+      body[head - i] = c;
+      occ[c]++;
+      x = (x - dx + cols) % cols;
+      y = (y - dy + rows) % rows;
+    }
+    prevTail = segment(len - 1);
+    rebuildFree();
+    changedAll = true;
+  }
+
+  /** Move: new head slot, tail slot released (overwritten only when the ring is full). */
+  void pushHead(int cell) {
+    prevTail = body[tailIndex()];
+    leave(prevTail);
+    touch(prevTail);
+    touch(body[head]); // old head turns into body
+    if (++head == maxLen)
+      head = 0;
+    body[head] = cell;
+    enter(cell);
+    touch(cell);
+  }
+
+  /** Swap the head's cell in place (Mulligan teleport). */
+  void moveHeadTo(int cell) {
+    touch(body[head]);
+    touch(cell);
+    leave(body[head]);
+    body[head] = cell;
+    enter(cell);
+  }
+
+  /** Grow by one: duplicate the tail so it holds still on the next move. */
+  void growTail() {
+    if (length >= maxLen)
+      return;
+    int t = tailIndex();
+    int nt = (t == 0) ? maxLen - 1 : t - 1;
+    body[nt] = body[t];
+    occ[body[t]]++;
+    length++;
+  }
+
+  // -------- change log (for dirty-region painting) --------
+  void touch(int cell) {
+    if (changedAll)
+      return;
+    if (changedCount == changed.length)
+      changedAll = true;
+    else
+      changed[changedCount++] = cell;
+  }
+
+  void touchAll() {
+    changedAll = true;
+  }
+
+  /**
+   * Copy the cells changed since the last call into {@code out} and reset the
+   * log. Returns their count, or -1 for "redraw everything".
+   */
+  public int drainChanged(int[] out) {
+    int n = (changedAll || changedCount > out.length) ? -1 : changedCount;
+    if (n > 0)
+      System.arraycopy(changed, 0, out, 0, n);
+    changedCount = 0;
+    changedAll = false;
+    return n;
+  }
+
+  // -------- read-only accessors for bots / replays --------
+  public int cols() {
+    return cols;
+  }
+
+  public int rows() {
+    return rows;
+  }
+
+  public int score() {
+    return score;
+  }
+
+  public int length() {
+    return length;
+  }
+
+  public int level() {
+    return level;
+  }
+
+  public long ticks() {
+    return ticks;
+  }
+
+  public boolean isDead() {
+    return dead;
+  }
+
+  public Dir dir() {
+    return dir;
+  }
+}
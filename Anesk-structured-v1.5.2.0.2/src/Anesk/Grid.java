@@ -0,0 +1,337 @@
+package Anesk;
+
+import java.util.Arrays;
+
+/**
+ * Bit-packed cols x rows boolean grid (walls, pellets, masks).
+ * - One bit per cell in a long[]; each row starts on a fresh word, so
+ *   shifts and row ops stay word-parallel and padding bits are always 0
+ * - Bulk ops (fill, or, and, andNot, not, shift, cardinality, flood) touch
+ *   64 cells per step
+ * - Indexed as (x, y) or by packed cell (y * cols + x), same as GameState
+ */
+public final class Grid {
+  public final int cols, rows;
+  private final int wpr; // words per row
+  private final long tailMask; // valid bits in a row's last word
+  private final long[] bits;
+
+  public Grid(int cols, int rows) {
+    if (cols <= 0 || rows <= 0)
+      throw new IllegalArgumentException("Grid " + cols + "x" + rows);
+    this.cols = cols;
+    this.rows = rows;
+    this.wpr = (cols + 63) >>> 6;
+    this.tailMask = -1L >>> (wpr * 64 - cols);
+    this.bits = new long[wpr * rows];
+  }
+
+  public Grid copy() {
+    Grid g = new Grid(cols, rows);
+    System.arraycopy(bits, 0, g.bits, 0, bits.length);
+    return g;
+  }
+
+  /* ------------------------ Cells --------------------------- */
+  public boolean inBounds(int x, int y) {
+    return x >= 0 && y >= 0 && x < cols && y < rows;
+  }
+
+  public boolean get(int x, int y) {
+    return (bits[y * wpr + (x >>> 6)] & (1L << x)) != 0;
+  }
+
+  /** By packed cell (y * cols + x). */
+  public boolean get(int cell) {
+    return get(cell % cols, cell / cols);
+  }
+
+  public void set(int x, int y) {
+    bits[y * wpr + (x >>> 6)] |= 1L << x;
+  }
+
+  public void clear(int x, int y) {
+    bits[y * wpr + (x >>> 6)] &= ~(1L << x);
+  }
+
+  public void set(int x, int y, boolean v) {
+    if (v)
+      set(x, y);
+    else
+      clear(x, y);
+  }
+
+  /** First set x ≥ fromX in row y, or -1. Skips empty words 64 cells at a time. */
+  public int nextSet(int y, int fromX) {
+    if (fromX >= cols)
+      return -1;
+    int base = y * wpr, i = fromX >>> 6;
+    long w = bits[base + i] & (-1L << fromX);
+    while (w == 0) {
+      if (++i == wpr)
+        return -1;
+      w = bits[base + i];
+    }
+    return (i << 6) + Long.numberOfTrailingZeros(w);
+  }
+
+  /* ------------------------ Bulk ---------------------------- */
+  public void fill(boolean v) {
+    if (!v) {
+      Arrays.fill(bits, 0L);
+      return;
+    }
+    Arrays.fill(bits, -1L);
+    for (int y = 0; y < rows; y++)
+      bits[y * wpr + wpr - 1] = tailMask;
+  }
+
+  /** Set or clear a rectangle (clipped to the grid). */
+  public void fillRect(int x, int y, int w, int h, boolean v) {
+    int x0 = Math.max(0, x), x1 = Math.min(cols, x + w);
+    int y0 = Math.max(0, y), y1 = Math.min(rows, y + h);
+    if (x0 >= x1 || y0 >= y1)
+      return;
+    int w0 = x0 >>> 6, w1 = (x1 - 1) >>> 6;
+    for (int r = y0; r < y1; r++) {
+      int base = r * wpr;
+      for (int i = w0; i <= w1; i++) {
+        long m = -1L;
+        if (i == w0)
+          m &= -1L << x0;
+        if (i == w1)
+          m &= -1L >>> (63 - ((x1 - 1) & 63));
+        if (v)
+          bits[base + i] |= m;
+        else
+          bits[base + i] &= ~m;
+      }
+    }
+  }
+
+  public void copyFrom(Grid o) {
+    sameShape(o);
+    System.arraycopy(o.bits, 0, bits, 0, bits.length);
+  }
+
+  public void or(Grid o) {
+    sameShape(o);
+    for (int i = 0; i < bits.length; i++)
+      bits[i] |= o.bits[i];
+  }
+
+  public void and(Grid o) {
+    sameShape(o);
+    for (int i = 0; i < bits.length; i++)
+      bits[i] &= o.bits[i];
+  }
+
+  public void andNot(Grid o) {
+    sameShape(o);
+    for (int i = 0; i < bits.length; i++)
+      bits[i] &= ~o.bits[i];
+  }
+
+  public void not() {
+    for (int i = 0; i < bits.length; i++)
+      bits[i] = ~bits[i];
+    for (int y = 0; y < rows; y++)
+      bits[y * wpr + wpr - 1] &= tailMask;
+  }
+
+  /** Number of set cells (popcount). */
+  public int cardinality() {
+    int n = 0;
+    for (long w : bits)
+      n += Long.bitCount(w);
+    return n;
+  }
+
+  public boolean isEmpty() {
+    for (long w : bits)
+      if (w != 0)
+        return false;
+    return true;
+  }
+
+  /* ------------------------ Shifts -------------------------- */
+  /**
+   * dst = this moved by (dx, dy). With wrap, cells leaving one edge enter the
+   * opposite one; without, they drop off. dst must be another grid of the same shape.
+   */
+  public void shiftInto(Grid dst, int dx, int dy, boolean wrap) {
+    shiftInto(dst, dx, dy, wrap, false);
+  }
+
+  /** Like shiftInto, but ORs the moved cells into dst. */
+  public void shiftOrInto(Grid dst, int dx, int dy, boolean wrap) {
+    shiftInto(dst, dx, dy, wrap, true);
+  }
+
+  /**
+   * OR {@code src} into this grid with its (0, 0) at (x, y); whatever falls
+   * outside is cropped. Sizes may differ.
+   */
+  public void paste(Grid src, int x, int y) {
+    for (int sy = Math.max(0, -y); sy < src.rows && sy + y < rows; sy++)
+      shiftRow(src.bits, sy * src.wpr, src.wpr, bits, (sy + y) * wpr, x, true);
+  }
+
+  private void shiftInto(Grid dst, int dx, int dy, boolean wrap, boolean or) {
+    sameShape(dst);
+    if (dst == this)
+      throw new IllegalArgumentException("shift needs a separate destination");
+    if (wrap) {
+      dx = Math.floorMod(dx, cols);
+      dy = Math.floorMod(dy, rows);
+    }
+    for (int y = 0; y < rows; y++) {
+      int sy = y - dy;
+      if (wrap && sy < 0)
+        sy += rows;
+      int d = y * wpr;
+      if (sy < 0 || sy >= rows || (!wrap && Math.abs(dx) >= cols)) {
+        if (!or)
+          Arrays.fill(dst.bits, d, d + wpr, 0L);
+        continue;
+      }
+      int s = sy * wpr;
+      shiftRow(bits, s, wpr, dst.bits, d, dx, or);
+      if (wrap && dx != 0)
+        shiftRow(bits, s, wpr, dst.bits, d, dx - cols, true); // the part that wrapped
+    }
+  }
+
+  // One row moved k bits toward higher x (k < 0: lower x); bits past the row end drop.
+  private void shiftRow(long[] src, int s, int srcWpr, long[] dst, int d, int k, boolean or) {
+    int ws = Math.abs(k) >>> 6, bs = Math.abs(k) & 63;
+    for (int i = 0; i < wpr; i++) {
+      long v;
+      if (k >= 0) {
+        long a = word(src, s, srcWpr, i - ws), b = word(src, s, srcWpr, i - ws - 1);
+        v = (bs == 0) ? a : (a << bs) | (b >>> (64 - bs));
+      } else {
+        long a = word(src, s, srcWpr, i + ws), b = word(src, s, srcWpr, i + ws + 1);
+        v = (bs == 0) ? a : (a >>> bs) | (b << (64 - bs));
+      }
+      if (i == wpr - 1)
+        v &= tailMask;
+      dst[d + i] = or ? dst[d + i] | v : v;
+    }
+  }
+
+  private static long word(long[] src, int s, int srcWpr, int i) {
+    return (i >= 0 && i < srcWpr) ? src[s + i] : 0L;
+  }
+
+  /* ------------------------ Flood --------------------------- */
+  /**
+   * Cells reachable from (x, y) through 4-neighbour steps over cells that are
+   * NOT set here (treating this grid as walls). Sweeps rows down then up,
+   * pulling from the neighbouring row and filling each row's open runs with
+   * word-wide occluded fills, until a full round adds nothing.
+   */
+  public Grid flood(int x, int y, boolean wrap) {
+    Grid reach = new Grid(cols, rows);
+    if (!inBounds(x, y) || get(x, y))
+      return reach;
+    reach.set(x, y);
+    long[] r = reach.bits;
+    for (boolean changed = true; changed;) {
+      changed = false;
+      for (int row = 0; row < rows; row++)
+        changed |= relaxRow(r, row, row > 0 ? row - 1 : (wrap ? rows - 1 : -1), wrap);
+      for (int row = rows - 1; row >= 0; row--)
+        changed |= relaxRow(r, row, row < rows - 1 ? row + 1 : (wrap ? 0 : -1), wrap);
+    }
+    return reach;
+  }
+
+  // Grow row y of r from row ny (-1: none) and along its own open runs.
+  private boolean relaxRow(long[] r, int y, int ny, boolean wrap) {
+    final int base = y * wpr, last = wpr - 1;
+    boolean changed = false;
+    if (ny >= 0) {
+      int nb = ny * wpr;
+      for (int i = 0; i < wpr; i++) {
+        long v = r[base + i] | (r[nb + i] & open(base, i));
+        if (v != r[base + i]) {
+          r[base + i] = v;
+          changed = true;
+        }
+      }
+    }
+    for (;;) {
+      boolean grew = false;
+      long carry = 0;
+      for (int i = 0; i <= last; i++) { // toward higher x
+        long o = open(base, i);
+        long v = fillUp(r[base + i] | (carry & o), o);
+        grew |= v != r[base + i];
+        r[base + i] = v;
+        carry = (v >>> 63) & 1L;
+      }
+      carry = 0;
+      for (int i = last; i >= 0; i--) { // toward lower x
+        long o = open(base, i);
+        long v = fillDown(r[base + i] | ((carry << 63) & o), o);
+        grew |= v != r[base + i];
+        r[base + i] = v;
+        carry = v & 1L;
+      }
+      changed |= grew;
+      if (!wrap)
+        break;
+      // across the wrapped edge: seed x=0 from x=cols-1 (or back) and refill
+      boolean right = (r[base + last] & (1L << (cols - 1))) != 0;
+      boolean left = (r[base] & 1L) != 0;
+      if (right && !left && (open(base, 0) & 1L) != 0)
+        r[base] |= 1L;
+      else if (left && !right && (open(base, last) & (1L << (cols - 1))) != 0)
+        r[base + last] |= 1L << (cols - 1);
+      else
+        break;
+      changed = true;
+    }
+    return changed;
+  }
+
+  private long open(int base, int i) {
+    long o = ~bits[base + i];
+    return (i == wpr - 1) ? o & tailMask : o;
+  }
+
+  // Occluded fills: spread g along set bits of p (g must lie inside p).
+  private static long fillUp(long g, long p) {
+    g |= p & (g << 1);
+    p &= p << 1;
+    g |= p & (g << 2);
+    p &= p << 2;
+    g |= p & (g << 4);
+    p &= p << 4;
+    g |= p & (g << 8);
+    p &= p << 8;
+    g |= p & (g << 16);
+    p &= p << 16;
+    return g | (p & (g << 32));
+  }
+
+  private static long fillDown(long g, long p) {
+    g |= p & (g >>> 1);
+    p &= p >>> 1;
+    g |= p & (g >>> 2);
+    p &= p >>> 2;
+    g |= p & (g >>> 4);
+    p &= p >>> 4;
+    g |= p & (g >>> 8);
+    p &= p >>> 8;
+    g |= p & (g >>> 16);
+    p &= p >>> 16;
+    return g | (p & (g >>> 32));
+  }
+
+  private void sameShape(Grid o) {
+    if (o.cols != cols || o.rows != rows)
+      throw new IllegalArgumentException("Grid " + o.cols + "x" + o.rows + " vs " + cols + "x" + rows);
+  }
+}
@@ -0,0 +1,182 @@
+package Anesk;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextLayout;
+import java.awt.image.BufferedImage;
+
+/**
+ * HUD text cache: fonts and pre-rendered labels.
+ * - Fonts are created once; ui() derives from the panel font and keeps the
+ *   result until that font changes
+ * - Each Text is keyed on the values it shows; the string is built, laid out
+ *   (TextLayout) and rendered into a small translucent image only when the key
+ *   changes, so a steady frame just blits images
+ * - Labels are rendered at the device scale of the Graphics they are drawn
+ *   to and blitted 1:1 in device pixels, so HiDPI text stays sharp
+ */
+final class Hud {
+  static final Font MONO_12 = new Font("Consolas", Font.PLAIN, 12);
+  static final Font MONO_BOLD_14 = new Font("Consolas", Font.BOLD, 14);
+  static final Font MONO_BOLD_18 = new Font("Consolas", Font.BOLD, 18);
+
+  private static final FontRenderContext FRC = new FontRenderContext(null, true, false);
+
+  private Font base;
+  private Font[] derived = new Font[8];
+  private int[] derivedStyle = new int[8];
+  private float[] derivedSize = new float[8];
+  private int nDerived;
+
+  /** base.deriveFont(style, size), cached per base font. */
+  Font ui(Font base, int style, float size) {
+    if (base != this.base) {
+      this.base = base;
+      nDerived = 0;
+    }
+    for (int i = 0; i < nDerived; i++)
+      if (derivedStyle[i] == style && derivedSize[i] == size)
+        return derived[i];
+    if (nDerived == derived.length) {
+      derived = java.util.Arrays.copyOf(derived, nDerived * 2);
+      derivedStyle = java.util.Arrays.copyOf(derivedStyle, nDerived * 2);
+      derivedSize = java.util.Arrays.copyOf(derivedSize, nDerived * 2);
+    }
+    Font f = base.deriveFont(style, size);
+    derived[nDerived] = f;
+    derivedStyle[nDerived] = style;
+    derivedSize[nDerived++] = size;
+    return f;
+  }
+
+  /* ------------------------ Device -------------------------- */
+  /** Device px per user px of g: its uniform scale, or 1 under shear or uneven axes. */
+  static double deviceScale(Graphics2D g) {
+    AffineTransform at = g.getTransform();
+    double s = at.getScaleX();
+    return (s > 0 && s == at.getScaleY() && at.getShearX() == 0 && at.getShearY() == 0) ? s : 1;
+  }
+
+  /**
+   * Draw img, rendered at {@code scale} device px per user px, with its
+   * top-left at user (x, y): a 1:1 device blit when g has that scale, else
+   * scaled into place (until the caller re-renders at the new scale).
+   */
+  static void blit(Graphics2D g, Image img, int x, int y, double scale) {
+    double s = deviceScale(g);
+    if (scale == s && s == 1) {
+      g.drawImage(img, x, y, null);
+    } else if (scale == s) {
+      AffineTransform at = g.getTransform();
+      g.setTransform(AffineTransform.getTranslateInstance(
+          Math.round(at.getTranslateX() + x * s), Math.round(at.getTranslateY() + y * s)));
+      g.drawImage(img, 0, 0, null);
+      g.setTransform(at);
+    } else {
+      AffineTransform place = AffineTransform.getTranslateInstance(x, y);
+      place.scale(1 / scale, 1 / scale);
+      g.drawImage(img, place, null);
+    }
+  }
+
+  /* ------------------------ Labels -------------------------- */
+  /**
+   * One cached line of text. Usage:
+   * {@code if (t.changed(a, b)) t.set("..." + a); t.draw(g, x, baseline);}
+   */
+  static final class Text {
+    private final Color color;
+    private Font font;
+    private long keyA, keyB;
+    private boolean valid;
+    private String text = "";
+    private double scale = 1; // device px per user px of img
+    private BufferedImage img;
+    private int ascent, advance, height;
+
+    Text(Font font, Color color) {
+      this.font = font;
+      this.color = color;
+    }
+
+    /** Switch font (no-op if unchanged); forces a re-render. */
+    void font(Font f) {
+      if (f != font) {
+        font = f;
+        valid = false;
+      }
+    }
+
+    boolean changed(long a) {
+      return changed(a, 0L);
+    }
+
+    /** True (and remembers the key) when the shown values differ from last time. */
+    boolean changed(long a, long b) {
+      if (valid && a == keyA && b == keyB)
+        return false;
+      keyA = a;
+      keyB = b;
+      return true;
+    }
+
+    /** Lay out and render s. */
+    void set(String s) {
+      valid = true;
+      text = s;
+      render();
+    }
+
+    private void render() {
+      if (text.isEmpty()) {
+        img = null;
+        ascent = advance = height = 0;
+        return;
+      }
+      TextLayout layout = new TextLayout(text, font, FRC);
+      ascent = (int) Math.ceil(layout.getAscent());
+      int descent = (int) Math.ceil(layout.getDescent());
+      advance = (int) Math.ceil(layout.getAdvance());
+      height = (int) Math.ceil(layout.getAscent() + layout.getDescent() + layout.getLeading());
+
+      if (img != null)
+        img.flush();
+      img = SpriteBank.compatibleImage((int) Math.ceil((advance + 2) * scale), // 1px pad for overhang
+          (int) Math.ceil((ascent + descent + 2) * scale));
+      Graphics2D g = img.createGraphics();
+      try {
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.scale(scale, scale);
+        g.setColor(color);
+        layout.draw(g, 1, 1 + ascent);
+      } finally {
+        g.dispose();
+      }
+    }
+
+    /** Blit with the text's baseline origin at (x, y), like drawString. */
+    void draw(Graphics2D g, int x, int y) {
+      double s = deviceScale(g);
+      if (s != scale) { // moved to a screen with another scale
+        scale = s;
+        render();
+      }
+      if (img != null)
+        blit(g, img, x - 1, y - ascent - 1, scale);
+    }
+
+    int width() {
+      return advance;
+    }
+
+    int ascent() {
+      return ascent;
+    }
+
+    /** Line height (ascent + descent + leading), as FontMetrics.getHeight(). */
+    int height() {
+      return height;
+    }
+  }
+}
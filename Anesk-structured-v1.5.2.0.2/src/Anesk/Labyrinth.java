@@ -7,12 +7,13 @@ public final class Labyrinth {
   }
 
   /** Build a random "obstacles" arena (not a maze). */
-  public static void build(boolean[][] wall, int cols, int rows) {
-    build(wall, cols, rows, System.nanoTime());
+  public static void build(Grid wall) {
+    build(wall, System.nanoTime());
   }
 
-  public static void build(boolean[][] wall, int cols, int rows, long seed) {
-    clear(wall, cols, rows);
+  public static void build(Grid wall, long seed) {
+    final int cols = wall.cols, rows = wall.rows;
+    clear(wall);
     Random rng = new Random(seed);
 
     // ---- tuning knobs (feel free to tweak)
@@ -24,12 +25,10 @@ public final class Labyrinth {
 
     // optional soft border clearance (1 cell margin)
     if (keepBorderEmpty) {
-      for (int x = 0; x < cols; x++) {
-        wall[x][0] = wall[x][rows - 1] = false;
-      }
-      for (int y = 0; y < rows; y++) {
-        wall[0][y] = wall[cols - 1][y] = false;
-      }
+      wall.fillRect(0, 0, cols, 1, false);
+      wall.fillRect(0, rows - 1, cols, 1, false);
+      wall.fillRect(0, 0, 1, rows, false);
+      wall.fillRect(cols - 1, 0, 1, rows, false);
     }
 
     int area = cols * rows;
@@ -42,8 +41,8 @@ public final class Labyrinth {
       int x = rng.nextInt(cols), y = rng.nextInt(rows);
       if (skipEdge(x, y, cols, rows, keepBorderEmpty))
         continue;
-      if (!wall[x][y]) {
-        wall[x][y] = true;
+      if (!wall.get(x, y)) {
+        wall.set(x, y);
         placed++;
       }
     }
@@ -61,8 +60,8 @@ public final class Labyrinth {
           break;
         if (skipEdge(cx, cy, cols, rows, keepBorderEmpty))
           continue;
-        if (!wall[cx][cy]) {
-          wall[cx][cy] = true;
+        if (!wall.get(cx, cy)) {
+          wall.set(cx, cy);
           placed++;
         }
       }
@@ -85,17 +84,17 @@ public final class Labyrinth {
         continue;
       for (int cx = x; cx < x + bw && placed < maxWalls; cx++)
         for (int cy = y; cy < y + bh && placed < maxWalls; cy++)
-          if (!wall[cx][cy]) {
-            wall[cx][cy] = true;
+          if (!wall.get(cx, cy)) {
+            wall.set(cx, cy);
             placed++;
           }
       // cut a doorway so we don't make full cages
       int doorSide = rng.nextInt(4);
       switch (doorSide) {
-        case 0 -> wall[x + rng.nextInt(bw)][Math.max(0, y - 1) + y] = false;
-        case 1 -> wall[x + rng.nextInt(bw)][y + bh - 1] = false;
-        case 2 -> wall[x][y + rng.nextInt(bh)] = false;
-        default -> wall[x + bw - 1][y + rng.nextInt(bh)] = false;
+        case 0 -> wall.clear(x + rng.nextInt(bw), Math.min(rows - 1, Math.max(0, y - 1) + y));
+        case 1 -> wall.clear(x + rng.nextInt(bw), y + bh - 1);
+        case 2 -> wall.clear(x, y + rng.nextInt(bh));
+        default -> wall.clear(x + bw - 1, y + rng.nextInt(bh));
       }
     }
 
@@ -116,22 +115,50 @@ public final class Labyrinth {
     int gates = Math.max(8, area / 100);
     for (int i = 0; i < gates; i++) {
       int x = rng.nextInt(cols), y = rng.nextInt(rows);
-      if (!wall[x][y])
+      if (!wall.get(x, y))
         continue;
-      int n = neighbors(wall, cols, rows, x, y);
+      int n = neighbors(wall, x, y);
       if (n >= 3)
-        wall[x][y] = false; // open tight clusters
+        wall.clear(x, y); // open tight clusters
     }
+
+    sealPockets(wall, Config.WRAP_WALLS);
+  }
+
+  /**
+   * Turn open cells the snake can never reach into walls, so nothing spawns
+   * inside a sealed pocket. Floods from the first open cell near the centre.
+   */
+  public static void sealPockets(Grid wall, boolean wrap) {
+    int cy = wall.rows / 2;
+    for (int dy = 0; dy < wall.rows; dy++) {
+      int y = (cy + dy) % wall.rows;
+      int x = firstOpen(wall, y);
+      if (x < 0)
+        continue;
+      Grid reach = wall.flood(x, y, wrap);
+      reach.not();
+      wall.or(reach); // everything unreached becomes wall
+      return;
+    }
+  }
+
+  private static int firstOpen(Grid wall, int y) {
+    for (int x = 0; x < wall.cols; x++)
+      if (!wall.get(x, y))
+        return x;
+    return -1;
   }
 
   /**
    * Pick a random free cell AND a safe initial direction (neighbor also free).
    */
-  public static int[] randomSafeSpawn(boolean[][] wall, int cols, int rows, long seed) {
+  public static int[] randomSafeSpawn(Grid wall, long seed) {
+    final int cols = wall.cols, rows = wall.rows;
     Random rng = new Random(seed);
     for (int tries = 0; tries < 500; tries++) {
       int x = rng.nextInt(cols), y = rng.nextInt(rows);
-      if (wall[x][y])
+      if (wall.get(x, y))
         continue;
       int[][] dirs = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
       // shuffle
@@ -144,7 +171,7 @@ public final class Labyrinth {
       for (int[] d : dirs) {
         int nx = (x + d[0] + cols) % cols;
         int ny = (y + d[1] + rows) % rows;
-        if (!wall[nx][ny])
+        if (!wall.get(nx, ny))
           return new int[] { x, y, dirIndex(d[0], d[1]) };
       }
     }
@@ -154,9 +181,8 @@ public final class Labyrinth {
   // -------------------- helpers --------------------
 
   /** Clear (no walls). */
-  public static void clear(boolean[][] wall, int cols, int rows) {
-    for (int x = 0; x < cols; x++)
-      java.util.Arrays.fill(wall[x], false);
+  public static void clear(Grid wall) {
+    wall.fill(false);
   }
 
   private static boolean skipEdge(int x, int y, int cols, int rows, boolean keepBorderEmpty) {
@@ -165,25 +191,25 @@ public final class Labyrinth {
     return (x == 0 || y == 0 || x == cols - 1 || y == rows - 1);
   }
 
-  private static int putIfFree(boolean[][] wall, int x, int y) {
-    if (x < 0 || y < 0 || x >= wall.length || y >= wall[0].length)
+  private static int putIfFree(Grid wall, int x, int y) {
+    if (!wall.inBounds(x, y))
       return 0;
-    if (!wall[x][y]) {
-      wall[x][y] = true;
+    if (!wall.get(x, y)) {
+      wall.set(x, y);
       return 1;
     }
     return 0;
   }
 
-  private static int neighbors(boolean[][] wall, int cols, int rows, int x, int y) {
+  private static int neighbors(Grid wall, int x, int y) {
     int n = 0;
-    if (x > 0 && wall[x - 1][y])
+    if (x > 0 && wall.get(x - 1, y))
       n++;
-    if (x < cols - 1 && wall[x + 1][y])
+    if (x < wall.cols - 1 && wall.get(x + 1, y))
       n++;
-    if (y > 0 && wall[x][y - 1])
+    if (y > 0 && wall.get(x, y - 1))
       n++;
-    if (y < rows - 1 && wall[x][y + 1])
+    if (y < wall.rows - 1 && wall.get(x, y + 1))
       n++;
     return n;
   }
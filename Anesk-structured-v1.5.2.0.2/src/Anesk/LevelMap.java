@@ -8,12 +8,12 @@ import java.util.*;
 /** Loads fixed ASCII labyrinths like assets/misc/lab-01.txt */
 public final class LevelMap {
     public final int w, h;
-    public final boolean[][] wall; // wall[x][y]
-    public final boolean[][] pellet; // pellet[x][y]
+    public final Grid wall;
+    public final Grid pellet;
     public final Point spawn; // snake start
     public final List<Point> foods; // optional preferred food tiles
 
-    private LevelMap(int w, int h, boolean[][] wall, boolean[][] pellet, Point spawn, List<Point> foods) {
+    private LevelMap(int w, int h, Grid wall, Grid pellet, Point spawn, List<Point> foods) {
         this.w = w;
         this.h = h;
         this.wall = wall;
@@ -70,8 +70,8 @@ public final class LevelMap {
                 w = rows.stream().mapToInt(String::length).max().orElse(0);
             }
 
-            boolean[][] wall = new boolean[w][h];
-            boolean[][] pellet = new boolean[w][h];
+            Grid wall = new Grid(w, h);
+            Grid pellet = new Grid(w, h);
             Point spawn = null;
             List<Point> foods = new ArrayList<>();
 
@@ -81,10 +81,10 @@ public final class LevelMap {
                     char c = (x < r.length()) ? r.charAt(x) : ' ';
                     switch (c) {
                         case '#':
-                            wall[x][y] = true;
+                            wall.set(x, y);
                             break;
                         case '.':
-                            pellet[x][y] = true;
+                            pellet.set(x, y);
                             break;
                         case 'S':
                             if (spawn == null)
@@ -104,7 +104,7 @@ public final class LevelMap {
             if (spawn == null) {
                 outer: for (int y = h / 2 - 1; y <= h / 2 + 1; y++) {
                     for (int x = w / 2 - 1; x <= w / 2 + 1; x++) {
-                        if (x >= 0 && y >= 0 && x < w && y < h && !wall[x][y]) {
+                        if (wall.inBounds(x, y) && !wall.get(x, y)) {
                             spawn = new Point(x, y);
                             break outer;
                         }
@@ -6,7 +6,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class Main {
+  private static final int MIN_W = 640, MIN_H = 480; // content area; the start card and HUD need about this
   public static void main(String[] args) {
+    // --render=passive|active|fullscreen (same as -Danesk.render=...)
+    for (String a : args)
+      if (a.startsWith("--render="))
+        System.setProperty("anesk.render", a.substring("--render=".length()));
+    Anesk.RenderMode render = Anesk.RenderMode.fromProperty();
+
     SwingUtilities.invokeLater(() -> {
 
       // --- Preferences must be initialized first ---
@@ -20,10 +27,16 @@ public class Main {
       JFrame f = new JFrame("Anesk · Web Weavers World");
       f.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
-      Anesk t = new Anesk();
+      Anesk t = new Anesk(render);
       f.setContentPane(t);
-      f.setResizable(false);
+      GraphicsDevice screen = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
+      boolean fullScreen = render == Anesk.RenderMode.FULLSCREEN && screen.isFullScreenSupported();
+      if (fullScreen)
+        f.setUndecorated(true);
       f.pack();
+      // resizable: the board, atlases and cached layers re-fit once a resize settles
+      f.setResizable(!fullScreen);
+      f.setMinimumSize(new Dimension(f.getWidth() - t.getWidth() + MIN_W, f.getHeight() - t.getHeight() + MIN_H));
       f.setLocationRelativeTo(null);
 
       // Icons
@@ -57,7 +70,10 @@ public class Main {
         }
       });
 
-      f.setVisible(true);
+      if (fullScreen)
+        screen.setFullScreenWindow(f); // keeps the current display mode (and refresh rate)
+      else
+        f.setVisible(true);
       t.requestFocusInWindow();
     });
   }
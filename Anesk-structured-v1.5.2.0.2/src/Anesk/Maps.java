@@ -10,7 +10,7 @@ import java.util.stream.Collectors;
  * - Reads ASCII maps from classpath: /Anesk/maps/*.txt
  * - Optional /Anesk/maps/index.txt to enumerate files
  * - Dev fallback: loads .txt from a filesystem folder
- * - Activates one layout, fitted to Config.COLS x Config.ROWS
+ * - Activates one layout, fitted to Config.COLS x Config.ROWS (or any size via fit())
  */
 public final class Maps {
 
@@ -18,9 +18,9 @@ public final class Maps {
   public static final class Layout {
     public final String id; // e.g. "lab-01"
     public final int cols, rows; // native map size
-    public final boolean[][] wall; // wall[r][c] == true => wall present
+    public final Grid wall; // set => wall present
 
-    Layout(String id, int cols, int rows, boolean[][] wall) {
+    Layout(String id, int cols, int rows, Grid wall) {
       this.id = id;
       this.cols = cols;
       this.rows = rows;
@@ -34,8 +34,8 @@ public final class Maps {
   private static boolean LOADED = false;
 
   // Currently active (fitted to Config grid)
-  private static String ACTIVE_ID = null;
-  private static boolean[][] ACTIVE_WALLS = null; // size: Config.ROWS x Config.COLS
+  private static volatile String ACTIVE_ID = null; // read by the active render thread
+  private static Grid ACTIVE_WALLS = null; // fitted to Config.COLS x Config.ROWS
 
   private Maps() {
   }
@@ -46,11 +46,11 @@ public final class Maps {
     final int w, h;
     final String key; // lab-03
     final String title; // The BCB (Broken Circuit Board)
-    final boolean[][] wall; // wall[y][x]
+    final Grid wall;
     final java.awt.Point spawn; // from 'S' (nullable)
     final java.awt.Point fruitHint; // from 'F' (nullable)
 
-    MapDef(int w, int h, String key, String title, boolean[][] wall,
+    MapDef(int w, int h, String key, String title, Grid wall,
         java.awt.Point spawn, java.awt.Point fruitHint) {
       this.w = w;
       this.h = h;
@@ -87,7 +87,7 @@ public final class Maps {
     String title = m.group(4) == null ? "" : m.group(4);
 
     // next H lines are the grid
-    boolean[][] wall = new boolean[H][W];
+    Grid wall = new Grid(W, H);
     java.awt.Point spawn = null, fruit = null;
 
     for (int y = 0; y < H; y++) {
@@ -97,7 +97,7 @@ public final class Maps {
       for (int x = 0; x < W; x++) {
         char c = row.charAt(x);
         if (c == '#')
-          wall[y][x] = true;
+          wall.set(x, y);
         else if (c == 'S')
           spawn = new java.awt.Point(x, y);
         else if (c == 'F')
@@ -135,7 +135,7 @@ public final class Maps {
     Layout L = BY_ID.get(id);
     if (L == null)
       return false;
-    ACTIVE_WALLS = fitToConfig(L);
+    ACTIVE_WALLS = fit(L, Config.COLS, Config.ROWS);
     ACTIVE_ID = id;
     System.out.println("[Labyrinth] Activated '" + id + "' -> fitted to " + Config.COLS + "x" + Config.ROWS);
     return true;
@@ -170,9 +170,7 @@ public final class Maps {
   /** Query the fitted wall grid (safe even before activation). */
   public static boolean isWall(int col, int row) {
     ensureActive();
-    if (col < 0 || col >= Config.COLS || row < 0 || row >= Config.ROWS)
-      return false;
-    return ACTIVE_WALLS[row][col];
+    return ACTIVE_WALLS.inBounds(col, row) && ACTIVE_WALLS.get(col, row);
   }
 
   /** Cycle to next layout id and activate it. Returns the new id (or null). */
@@ -277,7 +275,7 @@ public final class Maps {
 
   // ----------- Parsing & fitting -----------
 
-  /** Parse rows of '#'/'.' into a boolean wall grid (keeps the native size). */
+  /** Parse rows of '#'/'.' into a wall grid (keeps the native size). */
   private static Layout parseAsciiGrid(String id, List<String> raw) {
     // filter comments & blank lines; ignore a header like "30x25 example"
     List<String> rows = raw.stream()
@@ -295,47 +293,33 @@ public final class Maps {
     }
 
     int R = rows.size();
-    boolean[][] wall = new boolean[R][cols];
+    Grid wall = new Grid(cols, R);
     for (int r = 0; r < R; r++) {
       String line = rows.get(r);
       for (int c = 0; c < cols; c++) {
-        char ch = line.charAt(c);
-        wall[r][c] = (ch == '#'); // anything else is empty ('.', 'f', spaces)
+        if (line.charAt(c) == '#') // anything else is empty ('.', 'f', spaces)
+          wall.set(c, r);
       }
     }
     return new Layout(id, cols, R, wall);
   }
 
   /**
-   * Fit a native layout into Config grid by centering, cropping or padding with
-   * empty.
+   * Fit a native layout into a cols x rows grid by centering, cropping or
+   * padding with empty.
    */
-  private static boolean[][] fitToConfig(Layout L) {
-    boolean[][] out = new boolean[Config.ROWS][Config.COLS];
-
-    // center-align
-    int offC = Math.max(0, (Config.COLS - L.cols) / 2);
-    int offR = Math.max(0, (Config.ROWS - L.rows) / 2);
-
-    for (int r = 0; r < Config.ROWS; r++) {
-      int sr = r - offR;
-      for (int c = 0; c < Config.COLS; c++) {
-        int sc = c - offC;
-        boolean v = (sr >= 0 && sr < L.rows && sc >= 0 && sc < L.cols) && L.wall[sr][sc];
-        out[r][c] = v;
-      }
-    }
+  public static Grid fit(Layout L, int cols, int rows) {
+    Grid out = new Grid(cols, rows);
+    // center-align (word-wide row copies)
+    out.paste(L.wall, Math.max(0, (cols - L.cols) / 2), Math.max(0, (rows - L.rows) / 2));
     return out;
   }
 
   // Simple generated arena with border walls (for emergencies)
   private static Layout generatedArena(String id, int cols, int rows) {
-    boolean[][] w = new boolean[rows][cols];
-    for (int r = 0; r < rows; r++) {
-      for (int c = 0; c < cols; c++) {
-        w[r][c] = (r == 0 || r == rows - 1 || c == 0 || c == cols - 1);
-      }
-    }
+    Grid w = new Grid(cols, rows);
+    w.fill(true);
+    w.fillRect(1, 1, cols - 2, rows - 2, false);
     return new Layout(id, cols, rows, w);
   }
 
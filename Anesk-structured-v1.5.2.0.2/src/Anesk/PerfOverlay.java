@@ -0,0 +1,195 @@
+package Anesk;
+
+import java.awt.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * DEV performance overlay: frame interval, paint and tick time, GC pauses,
+ * allocation rate, snake length and the Java2D pipeline.
+ * - Recorders are TimingRings fed from the paint and tick paths; while the
+ *   overlay is off they are skipped after one volatile read
+ * - frame() closes a frame: its paint time is the sum of every renderFrame()
+ *   since the previous one (dirty-region frames paint several rects)
+ * - GC pauses arrive as collector notifications; the allocation rate is
+ *   sampled from per-thread allocated bytes when the text refreshes
+ * - The text is re-rendered into cached labels at most every REFRESH_NS
+ */
+final class PerfOverlay {
+  static final int WIDTH = 300;
+  private static final long REFRESH_NS = 250_000_000L;
+  private static final int LINES = 6, LINE_H = 15, PAD = 8;
+  private static final Color BG = new Color(0, 0, 0, 170);
+
+  private volatile boolean on;
+  private final TimingRing frames = new TimingRing(512); // frame-to-frame ns
+  private final TimingRing paint = new TimingRing(512); // paint ns per frame
+  private final TimingRing tick = new TimingRing(512); // sim step ns
+  private final TimingRing gc = new TimingRing(64); // pause ns
+  private long paintAccum, lastFrameNs;
+  private boolean gcHooked;
+  private final Rectangle box = new Rectangle(); // paint()'s bounds
+
+  // text refresh state
+  private final Hud.Text[] lines = new Hud.Text[LINES];
+  private long refreshedNs, refreshes, allocBytes = -1, allocNs;
+  private double allocRate = -1; // bytes/s, -1: unknown
+  private GraphicsConfiguration pipelineGc;
+  private String pipeline = "";
+
+  PerfOverlay() {
+    for (int i = 0; i < LINES; i++)
+      lines[i] = new Hud.Text(Hud.MONO_12, Color.WHITE);
+  }
+
+  boolean isOn() {
+    return on;
+  }
+
+  void setOn(boolean v) {
+    if (v && !gcHooked) {
+      hookGc();
+      gcHooked = true;
+    }
+    if (v && !on) {
+      frames.clear();
+      paint.clear();
+      tick.clear();
+      lastFrameNs = 0;
+      paintAccum = 0;
+    }
+    on = v;
+  }
+
+  /* ------------------------ Recorders ----------------------- */
+  /** Start of a timed section; 0 when the overlay is off. */
+  long begin() {
+    return on ? System.nanoTime() : 0L;
+  }
+
+  /** End of a renderFrame() (paint thread). */
+  void endPaint(long t0) {
+    if (t0 != 0)
+      paintAccum += System.nanoTime() - t0;
+  }
+
+  /** End of a simulation step (tick thread). */
+  void endTick(long t0) {
+    if (t0 != 0)
+      tick.add(System.nanoTime() - t0);
+  }
+
+  /** A frame was presented (paint thread). */
+  void frame() {
+    if (!on)
+      return;
+    long now = System.nanoTime();
+    if (lastFrameNs != 0)
+      frames.add(now - lastFrameNs);
+    lastFrameNs = now;
+    paint.add(paintAccum);
+    paintAccum = 0;
+  }
+
+  /* ------------------------ Drawing ------------------------- */
+  /** Where the overlay sits in a panel {@code panelW} wide, into {@code out}. */
+  Rectangle bounds(int panelW, Rectangle out) {
+    out.setBounds(panelW - WIDTH - 10, 28, WIDTH, LINES * LINE_H + 2 * PAD);
+    return out;
+  }
+
+  void paint(Graphics2D g, int panelW, int snakeLength, GraphicsConfiguration config) {
+    long now = System.nanoTime();
+    if (now - refreshedNs >= REFRESH_NS) {
+      refresh(now, snakeLength, config);
+      refreshedNs = now;
+    }
+    Rectangle r = bounds(panelW, box);
+    g.setColor(BG);
+    g.fillRoundRect(r.x, r.y, r.width, r.height, 10, 10);
+    for (int i = 0; i < LINES; i++)
+      lines[i].draw(g, r.x + PAD, r.y + PAD + (i + 1) * LINE_H - 4);
+  }
+
+  private void refresh(long now, int snakeLength, GraphicsConfiguration config) {
+    sampleAlloc(now);
+    if (config != pipelineGc || pipeline.isEmpty()) {
+      pipelineGc = config;
+      pipeline = pipeline(config);
+    }
+    refreshes++;
+    set(0, "frame  " + stats(frames));
+    set(1, "paint  " + stats(paint));
+    set(2, "tick   " + stats(tick));
+    set(3, String.format("gc     %d pauses  last %.1f  max %.1f ms", gc.size(), gc.last() / 1e6, gc.max() / 1e6));
+    set(4, allocRate < 0 ? "alloc  n/a   length " + snakeLength
+        : String.format("alloc  %.1f MB/s   length %d", allocRate / (1024 * 1024), snakeLength));
+    set(5, "java2d " + pipeline);
+  }
+
+  private void set(int i, String s) {
+    if (lines[i].changed(refreshes))
+      lines[i].set(s);
+  }
+
+  private static String stats(TimingRing r) {
+    return String.format("p50 %6.2f  p99 %6.2f  max %6.2f ms",
+        r.percentile(50) / 1e6, r.percentile(99) / 1e6, r.max() / 1e6);
+  }
+
+  /* ------------------------ Sources ------------------------- */
+  private void sampleAlloc(long now) {
+    try {
+      java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+      if (!(mx instanceof com.sun.management.ThreadMXBean sun) || !sun.isThreadAllocatedMemorySupported())
+        return;
+      if (!sun.isThreadAllocatedMemoryEnabled())
+        sun.setThreadAllocatedMemoryEnabled(true);
+      long total = 0;
+      for (long b : sun.getThreadAllocatedBytes(mx.getAllThreadIds()))
+        if (b > 0)
+          total += b;
+      if (allocBytes >= 0 && now > allocNs) // threads that ended take their bytes along: clamp
+        allocRate = Math.max(0, total - allocBytes) * 1e9 / (now - allocNs);
+      allocBytes = total;
+      allocNs = now;
+    } catch (RuntimeException e) {
+      allocRate = -1;
+    }
+  }
+
+  private void hookGc() {
+    for (GarbageCollectorMXBean b : ManagementFactory.getGarbageCollectorMXBeans()) {
+      if (!(b instanceof NotificationEmitter emitter))
+        continue;
+      emitter.addNotificationListener((Notification n, Object hb) -> {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(n.getType()))
+          return;
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+            .from((CompositeData) n.getUserData());
+        if (!info.getGcName().contains("Concurrent")) // cycles that run beside the app are not pauses
+          gc.add(info.getGcInfo().getDuration() * 1_000_000L);
+      }, null, null);
+    }
+  }
+
+  // Java2D pipeline, from the screen configuration's implementation class
+  private static String pipeline(GraphicsConfiguration config) {
+    if (config == null)
+      return "none (headless/offscreen)";
+    String n = config.getClass().getSimpleName();
+    String p = n.startsWith("D3D") ? "Direct3D"
+        : n.startsWith("WGL") || n.startsWith("GLX") || n.startsWith("CGL") ? "OpenGL"
+        : n.startsWith("MTL") ? "Metal"
+        : n.startsWith("XR") ? "XRender"
+        : n.startsWith("X11") ? "X11 (software)"
+        : n.startsWith("Win32") ? "GDI (software)"
+        : n;
+    boolean vram = config.getImageCapabilities().isAccelerated();
+    return p + (vram ? ", accelerated images" : "");
+  }
+}
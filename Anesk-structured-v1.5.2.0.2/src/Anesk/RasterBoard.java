@@ -0,0 +1,187 @@
+package Anesk;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.stream.IntStream;
+
+/**
+ * Software board renderer for very large boards: writes pixels straight into
+ * the int[] raster of one TYPE_INT_RGB frame image, then blits that once.
+ * - Tiles are the skin's SpriteBank atlas read back as premultiplied ARGB
+ *   (Atlas.pixels()): opaque pixels are copied, edge pixels blended
+ * - paintBoard() queues pickups and snake pieces with add() in paint order;
+ *   render() fills background, grid and walls for the visible cells and
+ *   replays the queue on top
+ * - Big frames are split into bands of rows rendered in parallel; every tile
+ *   is clipped to the band's rows, so no two threads write the same pixel
+ * - anesk.raster=auto|on|off; auto only takes boards too large for BoardLayer
+ */
+final class RasterBoard {
+
+  enum Mode {
+    AUTO, ON, OFF;
+
+    static Mode fromProperty() {
+      String v = System.getProperty("anesk.raster", "auto").trim().toUpperCase(java.util.Locale.ROOT);
+      try {
+        return valueOf(v);
+      } catch (IllegalArgumentException e) {
+        return AUTO;
+      }
+    }
+  }
+
+  private static final int BAND_MIN_PX = 96; // rows per band, at least
+  private static final int PARALLEL_MIN_PX = 256 * 1024; // smaller frames stay on one thread
+  private static final int BG = Config.BG.getRGB(), GRID = Config.GRID.getRGB();
+
+  volatile Mode mode = Mode.fromProperty(); // dev tools can force ON
+
+  private BufferedImage img;
+  private int[] px;
+  private int stride;
+
+  // queued tiles: slot, x, y
+  private int[] ops = new int[3 * 256];
+  private int nOps;
+
+  // per-frame inputs, read by the band workers
+  private GameState game;
+  private SpriteBank.Atlas sprites;
+  private int[] tiles;
+  private int tilesW, ox, oy, cx0, cx1, x0, y0, x1, y1;
+
+  /** Whether to render this board here instead of through Java2D. */
+  boolean wanted(GameState game, int tile) {
+    return switch (mode) {
+      case ON -> true;
+      case OFF -> false;
+      case AUTO -> (long) Math.max(game.cols, game.rows) * tile + 1 > BoardLayer.MAX_PX;
+    };
+  }
+
+  /** Start a frame: forget the previous queue. */
+  void begin() {
+    nOps = 0;
+  }
+
+  /** Queue an atlas tile with its top-left at (x, y); later tiles land on top. */
+  void add(int slot, int x, int y) {
+    if (3 * nOps + 3 > ops.length)
+      ops = java.util.Arrays.copyOf(ops, ops.length * 2);
+    ops[3 * nOps] = slot;
+    ops[3 * nOps + 1] = x;
+    ops[3 * nOps + 2] = y;
+    nOps++;
+  }
+
+  /**
+   * Render the {@code clip} part of a w x h panel and blit it to g: cell
+   * (0, 0) at (ox, oy), walls for cells [x0, x1) x [y0, y1), then the queue.
+   */
+  void render(Graphics2D g, GameState game, SpriteBank.Atlas sprites, int w, int h, Rectangle clip,
+      int ox, int oy, int x0, int y0, int x1, int y1) {
+    if (img == null || img.getWidth() < w || img.getHeight() < h) { // grows only: live resizes reuse it
+      int iw = Math.max(w, img == null ? 0 : img.getWidth()), ih = Math.max(h, img == null ? 0 : img.getHeight());
+      if (img != null)
+        img.flush();
+      img = new BufferedImage(iw, ih, BufferedImage.TYPE_INT_RGB);
+      px = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+      stride = iw;
+    }
+    Rectangle r = (clip == null) ? new Rectangle(0, 0, w, h) : clip.intersection(new Rectangle(0, 0, w, h));
+    if (r.isEmpty())
+      return;
+
+    this.game = game;
+    this.sprites = sprites;
+    this.tiles = sprites.pixels();
+    this.tilesW = sprites.pixelsWidth();
+    this.ox = ox;
+    this.oy = oy;
+    this.x0 = x0;
+    this.y0 = y0;
+    this.x1 = x1;
+    this.y1 = y1;
+    cx0 = r.x;
+    cx1 = r.x + r.width;
+
+    int bands = 1;
+    if ((long) r.width * r.height >= PARALLEL_MIN_PX)
+      bands = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), r.height / BAND_MIN_PX));
+    if (bands == 1) {
+      band(r.y, r.y + r.height);
+    } else {
+      final int top = r.y, height = r.height, n = bands;
+      IntStream.range(0, n).parallel().forEach(b -> band(top + height * b / n, top + height * (b + 1) / n));
+    }
+    this.game = null; // don't pin the board between frames
+    g.drawImage(img, r.x, r.y, r.x + r.width, r.y + r.height, r.x, r.y, r.x + r.width, r.y + r.height, null);
+  }
+
+  /* ------------------------- Bands -------------------------- */
+  // Rows [by0, by1) of the clip: background, grid, walls, queued tiles.
+  private void band(int by0, int by1) {
+    final int[] p = px;
+    final int t = sprites.tile;
+    for (int y = by0; y < by1; y++)
+      java.util.Arrays.fill(p, y * stride + cx0, y * stride + cx1, BG);
+
+    if (Config.SHOW_GRID && t >= 6) {
+      // lines at every cell edge across the visible cells, ends included
+      int left = Math.max(cx0, ox + x0 * t), right = Math.min(cx1 - 1, ox + x1 * t);
+      int top = Math.max(by0, oy + y0 * t), bottom = Math.min(by1 - 1, oy + y1 * t);
+      if (left <= right && top <= bottom) {
+        for (int y = top; y <= bottom; y++) {
+          int row = y * stride;
+          if (Math.floorMod(y - oy, t) == 0) {
+            java.util.Arrays.fill(p, row + left, row + right + 1, GRID);
+          } else {
+            for (int x = left + Math.floorMod(ox - left, t); x <= right; x += t)
+              p[row + x] = GRID;
+          }
+        }
+      }
+    }
+
+    int wall = sprites.wallSlot();
+    int wy0 = Math.max(y0, Math.floorDiv(by0 - oy, t)), wy1 = Math.min(y1, Math.floorDiv(by1 - 1 - oy, t) + 1);
+    for (int y = wy0; y < wy1; y++)
+      for (int x = game.wall.nextSet(y, x0); x >= 0 && x < x1; x = game.wall.nextSet(y, x + 1))
+        tile(wall, ox + x * t, oy + y * t, by0, by1);
+
+    final int[] q = ops;
+    for (int i = 0, n = 3 * nOps; i < n; i += 3)
+      tile(q[i], q[i + 1], q[i + 2], by0, by1);
+  }
+
+  // Composite one atlas tile at (x, y), clipped to the clip columns and rows [by0, by1).
+  private void tile(int slot, int x, int y, int by0, int by1) {
+    final int t = sprites.tile;
+    int ya = Math.max(y, by0), yb = Math.min(y + t, by1);
+    int xa = Math.max(x, cx0), xb = Math.min(x + t, cx1);
+    if (ya >= yb || xa >= xb)
+      return;
+    final int[] src = tiles, dst = px;
+    int sx = sprites.slotX(slot) + (xa - x), sy = sprites.slotY(slot) + (ya - y);
+    for (int yy = ya; yy < yb; yy++, sy++) {
+      int s = sy * tilesW + sx, d = yy * stride + xa;
+      for (int e = d + (xb - xa); d < e; d++, s++) {
+        int c = src[s], a = c >>> 24;
+        if (a == 0xFF)
+          dst[d] = c;
+        else if (a != 0)
+          dst[d] = over(c, dst[d], 255 - a);
+      }
+    }
+  }
+
+  // Premultiplied source over an opaque destination.
+  private static int over(int s, int d, int ia) {
+    int r = ((s >> 16) & 0xFF) + (((d >> 16) & 0xFF) * ia + 127) / 255;
+    int g = ((s >> 8) & 0xFF) + (((d >> 8) & 0xFF) * ia + 127) / 255;
+    int b = (s & 0xFF) + ((d & 0xFF) * ia + 127) / 255;
+    return 0xFF000000 | Math.min(255, r) << 16 | Math.min(255, g) << 8 | Math.min(255, b);
+  }
+}
@@ -9,10 +9,20 @@ public final class ScoreMultiplier {
 
     private int tier = 1;
     private int meterMs = 0; // 0..METER_FULL_MS
-    private long lastMs = System.currentTimeMillis();
+    private final GameClock clock;
+    private long lastMs;
+
+    public ScoreMultiplier() {
+        this(GameClock.SYSTEM);
+    }
+
+    public ScoreMultiplier(GameClock clock) {
+        this.clock = clock;
+        this.lastMs = clock.millis();
+    }
 
     public void tick() {
-        long now = System.currentTimeMillis();
+        long now = clock.millis();
         int dt = (int) Math.max(0, Math.min(250, now - lastMs));
         lastMs = now;
 
@@ -36,7 +46,7 @@ public final class ScoreMultiplier {
         }
         if (tier == MAX_TIER && meterMs > METER_FULL_MS)
             meterMs = METER_FULL_MS;
-        lastMs = System.currentTimeMillis();
+        lastMs = clock.millis();
     }
 
     public int tier() {
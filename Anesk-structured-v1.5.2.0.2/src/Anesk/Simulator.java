@@ -0,0 +1,427 @@
+package Anesk;
+
+import java.awt.Point;
+
+/**
+ * Game rules on top of a GameState.
+ * - Swing-free: advance with tick(input), one call per move
+ * - Deterministic: all randomness comes from the state's seeded RNG, and time
+ *   is the state's virtual clock, advanced by the tick period on every tick
+ * - Side effects (sound, prefs, toasts) are reported through a Listener
+ */
+public final class Simulator {
+
+  // Tick speed control
+  static final int TICK_START = 110;
+  static final int TICK_FLOOR = 55;
+  static final int TICK_STEP = 4;
+
+  static final int START_LENGTH = 4;
+
+  // XP per pickup
+  static final int XP_APPLE = 10;
+  static final int XP_RARE = 30;
+
+  // --- Score Multiplier (streak) ---
+  static final int MULT_MAX_TIER = 5; // x1..x5
+  static final int MULT_METER_FULL_MS = 6000; // time to gain/lose one tier
+  static final int MULT_GAIN_ON_APPLE_MS = 35000; // meter added per apple
+
+  /** Hooks for side effects; every method defaults to a no-op for headless runs. */
+  public interface Listener {
+    default void onApple() {
+    }
+
+    default void onBonusSpawned() {
+    }
+
+    default void onBonus() {
+    }
+
+    default void onLevelUp() {
+    }
+
+    default void onSpeedChanged() {
+    }
+
+    /** XP or level changed (persist it). */
+    default void onXpChanged() {
+    }
+
+    /** Score or level moved; a good moment to check unlocks. */
+    default void onProgress() {
+    }
+
+    /** No free cell left for an apple. */
+    default void onBoardFull() {
+    }
+  }
+
+  private static final Listener NONE = new Listener() {
+  };
+
+  private final GameState s;
+  private Listener listener = NONE;
+
+  public Simulator(GameState s) {
+    this.s = s;
+  }
+
+  public GameState state() {
+    return s;
+  }
+
+  /** Game time of the current run (starts at 0, one tick period per tick). */
+  public GameClock clock() {
+    return s.clock;
+  }
+
+  public void setListener(Listener l) {
+    listener = (l != null) ? l : NONE;
+  }
+
+  /* --------------------------- Setup ------------------------ */
+  /** Idle board shown behind the start screen. */
+  public void reset() {
+    s.score = 0;
+    s.dir = GameState.Dir.RIGHT;
+    s.dead = false;
+    s.boardFull = false;
+    s.wall.fill(false);
+    s.wallVersion++;
+    s.placeBody(s.cols / 2, s.rows / 2, 1, 0, 1);
+    s.bonusActive = false;
+    s.bonusTicks = 0;
+    spawnApple();
+  }
+
+  /** Start a run on a board of the current size; see {@link #start(LevelMap, int, int)}. */
+  public void start(LevelMap map) {
+    start(map, s.cols, s.rows);
+  }
+
+  /**
+   * Start a run; pass a LevelMap for labyrinth mode (the board takes the map's
+   * size) or null for an open cols x rows board.
+   */
+  public void start(LevelMap map, int cols, int rows) {
+    if (map != null)
+      s.resize(map.w, map.h);
+    else
+      s.resize(cols, rows);
+    s.score = 0;
+    s.ticks = 0;
+    s.dead = false;
+    s.boardFull = false;
+    s.bonusActive = false;
+    s.bonusTicks = 0;
+
+    s.wallVersion++;
+    if (map != null) {
+      loadLevel(map);
+    } else {
+      // Classic: center start
+      s.dir = GameState.Dir.RIGHT;
+      int cx = s.cols / 2, cy = s.rows / 2;
+      if (s.wallAt(cx, cy)) {
+        cx = 2;
+        cy = 2;
+      }
+      s.placeBody(cx, cy, 1, 0, START_LENGTH);
+    }
+
+    spawnApple();
+
+    s.speedIndex = Config.START_SPEED_INDEX;
+    s.tickMs = Config.SPEEDS_MS[s.speedIndex];
+
+    s.multTier = 1;
+    s.multMeterMs = 0;
+    s.clock.set(0);
+  }
+
+  private void loadLevel(LevelMap map) {
+    // 1) walls (the board was already resized to the map)
+    s.wall.copyFrom(map.wall);
+
+    // 2) choose a safe initial direction from spawn
+    int sx0 = Math.max(0, Math.min(s.cols - 1, map.spawn.x));
+    int sy0 = Math.max(0, Math.min(s.rows - 1, map.spawn.y));
+    GameState.Dir d = pickSafeDir(sx0, sy0);
+    if (d == null)
+      d = GameState.Dir.RIGHT; // fallback
+
+    // 3) snake head + body
+    s.dir = d;
+    int dx = (d == GameState.Dir.RIGHT ? 1 : d == GameState.Dir.LEFT ? -1 : 0);
+    int dy = (d == GameState.Dir.DOWN ? 1 : d == GameState.Dir.UP ? -1 : 0);
+    s.placeBody(sx0, sy0, dx, dy, START_LENGTH);
+  }
+
+  private GameState.Dir pickSafeDir(int x, int y) {
+    if (!s.wallAt((x + 1) % s.cols, y))
+      return GameState.Dir.RIGHT;
+    if (!s.wallAt((x - 1 + s.cols) % s.cols, y))
+      return GameState.Dir.LEFT;
+    if (!s.wallAt(x, (y + 1) % s.rows))
+      return GameState.Dir.DOWN;
+    if (!s.wallAt(x, (y - 1 + s.rows) % s.rows))
+      return GameState.Dir.UP;
+    return null;
+  }
+
+  /* --------------------------- Tick ------------------------- */
+  /**
+   * Advance one move. {@code input} is the requested direction (null keeps
+   * going straight; reversals are ignored). Returns false if the snake died.
+   */
+  public boolean tick(GameState.Dir input) {
+    if (s.dead)
+      return false;
+    if (input != null && !s.dir.isOpposite(input))
+      s.dir = input;
+
+    int dtMs = s.tickMs;
+    s.clock.advance(dtMs * 1_000_000L);
+    multiplierTick(dtMs);
+    s.ticks++;
+
+    int hc = s.headCell();
+    int hx = s.cellX(hc), hy = s.cellY(hc);
+    switch (s.dir) {
+      case LEFT -> hx--;
+      case RIGHT -> hx++;
+      case UP -> hy--;
+      case DOWN -> hy++;
+    }
+
+    if (Config.WRAP_WALLS) {
+      hx = (hx + s.cols) % s.cols;
+      hy = (hy + s.rows) % s.rows;
+    } else if (hx < 0 || hx >= s.cols || hy < 0 || hy >= s.rows) {
+      return die();
+    }
+    s.pushHead(s.cell(hx, hy));
+
+    if (s.appleX < 0 && s.freeCount > 0)
+      spawnApple(); // a cell opened up again (e.g. the bonus shard expired)
+
+    if (!s.invincible) {
+      if (s.wallAt(hx, hy))
+        return die();
+      if (s.occ[s.headCell()] > 1) // the head itself counts once
+        return die();
+    }
+
+    if (hx == s.appleX && hy == s.appleY) {
+      s.score += 10;
+      addXp(XP_APPLE);
+      multiplierOnApple();
+      s.growTail();
+      spawnApple();
+      listener.onApple();
+      listener.onProgress();
+
+      int apples = (s.score / 10);
+      if (apples % 5 == 0 && s.speedIndex < Config.SPEEDS_MS.length - 1)
+        changeSpeed(+1);
+
+      if (!s.bonusActive && s.rng.nextDouble() < Config.BONUS_SPAWN_CHANCE)
+        spawnBonus();
+    }
+
+    if (s.bonusActive) {
+      if (hx == s.bonusX && hy == s.bonusY) {
+        s.score += Config.BONUS_POINTS;
+        addXp(XP_RARE);
+        s.growTail();
+        s.growTail();
+        s.bonusActive = false;
+        listener.onBonus();
+      } else {
+        if (--s.bonusTicks <= 0) {
+          s.bonusActive = false;
+          s.touch(s.cell(s.bonusX, s.bonusY));
+        }
+      }
+      listener.onProgress();
+    }
+    return true;
+  }
+
+  private boolean die() {
+    s.dead = true;
+    return false;
+  }
+
+  /* -------------------------- Speed ------------------------- */
+  /** Step the speed tier; returns true if it actually changed. */
+  public boolean changeSpeed(int delta) {
+    int old = s.speedIndex;
+    s.speedIndex = Math.max(0, Math.min(Config.SPEEDS_MS.length - 1, s.speedIndex + delta));
+    int base = Config.SPEEDS_MS[s.speedIndex];
+    s.tickMs = Math.min(s.tickMs, base);
+    if (old == s.speedIndex)
+      return false;
+    listener.onSpeedChanged();
+    return true;
+  }
+
+  /* ------------------------ Level / XP ---------------------- */
+  // --- XP requirement formula (tweak as you like)
+  static int xpForLevel(int lvl) {
+    // Linear growth: L1=100, L2=120, L3=140, ...
+    return 100 + Math.max(0, (lvl - 1)) * 20;
+  }
+
+  /** Requirement for the active level. */
+  public int currentXpNeeded() {
+    return xpForLevel(s.level);
+  }
+
+  public void addXp(int amount) {
+    if (amount <= 0)
+      return;
+    s.xp += amount;
+
+    // Handle multi-level jumps safely
+    for (;;) {
+      int need = currentXpNeeded();
+      if (s.xp < need)
+        break;
+      s.xp -= need;
+      s.level++;
+      onLevelUp();
+      listener.onProgress();
+    }
+    listener.onXpChanged();
+  }
+
+  private void onLevelUp() {
+    s.tickMs = Math.max(TICK_FLOOR, s.tickMs - TICK_STEP);
+    listener.onLevelUp();
+  }
+
+  /** If loaded XP overshoots the current requirement, carry it forward. */
+  public void normalizeProgress() {
+    int guard = 0;
+    while (s.xp >= currentXpNeeded() && guard++ < 10000) {
+      s.xp -= currentXpNeeded();
+      s.level++;
+    }
+  }
+
+  /* ------------------------ Multiplier ---------------------- */
+  private void multiplierTick(int dtMs) {
+    int dt = Math.min(250, Math.max(0, dtMs)); // clamp big hitches
+    if (dt == 0)
+      return;
+    if (s.multMeterMs <= 0)
+      return;
+
+    s.multMeterMs -= dt;
+
+    // If meter underflows, step down tiers gradually.
+    while (s.multMeterMs < 0 && s.multTier > 1) {
+      s.multTier--;
+      s.multMeterMs += MULT_METER_FULL_MS; // carry underflow into the lower tier
+    }
+    if (s.multTier == 1 && s.multMeterMs < 0)
+      s.multMeterMs = 0;
+  }
+
+  private void multiplierOnApple() {
+    s.multMeterMs += MULT_GAIN_ON_APPLE_MS;
+
+    while (s.multMeterMs >= MULT_METER_FULL_MS && s.multTier < MULT_MAX_TIER) {
+      s.multMeterMs -= MULT_METER_FULL_MS;
+      s.multTier++;
+    }
+    // Cap meter at full when at max tier
+    if (s.multTier == MULT_MAX_TIER && s.multMeterMs > MULT_METER_FULL_MS) {
+      s.multMeterMs = MULT_METER_FULL_MS;
+    }
+  }
+
+  /* ------------------------- Power-ups ---------------------- */
+  void onPickupPowerUp(PowerUps.Type t) {
+    if (!s.inventory.add(t))
+      s.score += PowerUps.OVERFLOW_SCORE; // full: convert to score
+  }
+
+  void useSelectedPowerUp() {
+    PowerUps.Type t = s.inventory.useSelected();
+    if (t == null)
+      return;
+    switch (t) {
+      case MULLIGAN -> {
+        // Mulligan is auto-use; treat manual use as no-op (re-add to inventory)
+        s.inventory.add(PowerUps.Type.MULLIGAN);
+      }
+      case PHASE_WALLS -> s.effects.activate(PowerUps.Type.PHASE_WALLS);
+    }
+  }
+
+  boolean tryMulligan(int headBeforeX, int headBeforeY) {
+    if (!s.inventory.consumeFirst(PowerUps.Type.MULLIGAN))
+      return false;
+
+    Point safe = findNearestSafeTile(headBeforeX, headBeforeY);
+    if (safe == null)
+      return false;
+
+    // Teleport the head to a safe tile this tick (a normal, non-growth move).
+    s.moveHeadTo(s.cell(safe.x, safe.y));
+    return true;
+  }
+
+  private Point findNearestSafeTile(int originX, int originY) {
+    int maxR = Math.max(s.cols, s.rows);
+    for (int r = 1; r <= maxR; r++) {
+      for (int dx = -r; dx <= r; dx++) {
+        for (int dy = -r; dy <= r; dy++) {
+          if (Math.abs(dx) != r && Math.abs(dy) != r)
+            continue; // perimeter only
+          int x = originX + dx;
+          int y = originY + dy;
+          if (x < 0 || y < 0 || x >= s.cols || y >= s.rows)
+            continue;
+          if (s.freePos[s.cell(x, y)] < 0)
+            continue; // wall or body
+          return new Point(x, y);
+        }
+      }
+    }
+    return null;
+  }
+
+  /* -------------------------- Spawns ------------------------ */
+  /** Uniform pick from the free-cell set; flags "board full" if nothing is left. */
+  private void spawnApple() {
+    int c = s.randomFreeCell(s.bonusActive ? s.cell(s.bonusX, s.bonusY) : -1);
+    if (c < 0) {
+      s.appleX = s.appleY = -1;
+      if (!s.boardFull) {
+        s.boardFull = true;
+        listener.onBoardFull();
+      }
+      return;
+    }
+    s.boardFull = false;
+    s.appleX = s.cellX(c);
+    s.appleY = s.cellY(c);
+    s.touch(c);
+  }
+
+  private void spawnBonus() {
+    int c = s.randomFreeCell(s.appleX >= 0 ? s.cell(s.appleX, s.appleY) : -1);
+    if (c < 0)
+      return; // no room for a shard
+    s.bonusX = s.cellX(c);
+    s.bonusY = s.cellY(c);
+    s.bonusActive = true;
+    s.bonusTicks = Config.BONUS_LIFE_TICKS;
+    s.touch(c);
+    listener.onBonusSpawned();
+  }
+}
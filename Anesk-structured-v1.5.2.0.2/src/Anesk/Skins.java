@@ -1,6 +1,7 @@
 package Anesk;
 
 import java.awt.Color;
+import java.util.function.DoubleFunction;
 import java.util.prefs.Preferences;
 
 /**
@@ -58,7 +59,7 @@ public final class Skins {
 
     private final Preferences prefs;
 
-    private Skin skin = Skin.MAIN;
+    private volatile Skin skin = Skin.MAIN; // read by the active render thread
 
     // unlock flags
     private boolean uRainbow, uTrans, uSolar, uSilver, uGold, uLesbian, uBi, uPan, uNonbinary, uAsexual, uAromantic,
@@ -211,8 +212,40 @@ public final class Skins {
     }
 
     // -------- colors (API mirrors your old methods) --------
+    // Every skin's colours are compiled once, by ordinal: body and apple tables
+    // (also as int ARGB), head and accent. The getters only index these tables,
+    // so they hand out shared Colors and never allocate.
+    // - Fixed colours: body bands by segment index, one apple colour
+    // - Time-based colours: a RAMP-entry table over one period of the animation,
+    //   indexed by phase = seconds * speed (+ idx * step for body segments);
+    //   the shared clock is the panel's per-frame snapshot, so a frame costs one
+    //   time read per call and no trig or HSB conversion at all
+    static final int RAMP = 256;
+    private static final int N = Skin.values().length;
+    private static final Color[][] BODY = new Color[N][], APPLE = new Color[N][];
+    private static final int[][] BODY_ARGB = new int[N][], APPLE_ARGB = new int[N][];
+    private static final double[] BODY_SPEED = new double[N], BODY_STEP = new double[N]; // cycles/s, /segment
+    private static final double[] APPLE_SPEED = new double[N]; // 0: fixed
+    private static final Color[] HEAD = new Color[N];
+    private static final Color[] ACCENT = new Color[N];
+
+    static {
+      for (Skin s : Skin.values()) {
+        int o = s.ordinal();
+        BODY[o] = compileBody(s);
+        BODY_ARGB[o] = argb(BODY[o]);
+        APPLE[o] = compileApple(s);
+        APPLE_ARGB[o] = argb(APPLE[o]);
+        HEAD[o] = compileHead(s);
+        ACCENT[o] = compileAccent(s);
+      }
+    }
 
     public static Color accentFor(Skin s) {
+      return ACCENT[s.ordinal()];
+    }
+
+    private static Color compileAccent(Skin s) {
       return switch (s) {
         case RAINBOW -> Color.WHITE;
         case SOLAR -> new Color(0xEF7701);
@@ -251,242 +284,289 @@ public final class Skins {
     }
 
     public static Color appleColor(Skin skin) {
+      return APPLE[skin.ordinal()][appleIndex(skin)];
+    }
+
+    /** Index into appleTable(skin) for the current frame. */
+    public static int appleIndex(Skin skin) {
+      double speed = APPLE_SPEED[skin.ordinal()];
+      return speed == 0 ? 0 : rampIndex(seconds() * speed);
+    }
+
+    /** The shared apple table (int ARGB; do not modify): one colour, or a RAMP. */
+    static int[] appleTable(Skin skin) {
+      return APPLE_ARGB[skin.ordinal()];
+    }
+
+    // One fixed colour, or a ramp (APPLE_SPEED gets its cycles per second).
+    private static Color[] compileApple(Skin skin) {
       switch (skin) {
         case TRANS -> {
           Color[] pal = { c(0x5BCFFA), c(0xF5A9B8), c(0xFFFFFF), c(0xF5A9B8), c(0x5BCFFA) };
-          return cyclePalette(pal, 2.0);
+          return cycle(skin, 2.0, pal);
         }
         case RAINBOW -> {
-          float base = (System.nanoTime() / 1_000_000_000f) * 0.15f;
-          float h = (base % 1f);
-          return Color.getHSBColor(h, 0.9f, 1f);
+          APPLE_SPEED[skin.ordinal()] = 0.15;
+          return ramp(p -> Color.getHSBColor((float) p, 0.9f, 1f));
+        }
+        case GOLD -> {
+          APPLE_SPEED[skin.ordinal()] = 0.45;
+          return ramp(p -> Color.getHSBColor(0.12f, 0.85f, 0.88f + 0.10f * (float) Math.sin(p * Math.PI * 2)));
         }
         case LESBIAN -> {
           Color[] pal = { c(0xD52D00), c(0xFF9A56), c(0xFFFFFF), c(0xD362A4), c(0xA30262) };
-          return cyclePalette(pal, 2.2);
+          return cycle(skin, 2.2, pal);
         }
         case BI -> {
           Color[] pal = { c(0xD60270), c(0xD60270), c(0x9B4F96), c(0x0038A8), c(0x0038A8) };
-          return cyclePalette(pal, 2.0);
+          return cycle(skin, 2.0, pal);
         }
         case PAN -> {
           Color[] pal = { c(0xFF218C), c(0xFFD800), c(0x21B1FF) };
-          return cyclePalette(pal, 1.8);
+          return cycle(skin, 1.8, pal);
         }
         case NONBINARY -> {
           Color[] pal = { c(0xFCF434), c(0xFFFFFF), c(0x9C59D1), c(0x2C2C2C) };
-          return cyclePalette(pal, 2.2);
+          return cycle(skin, 2.2, pal);
         }
         case ASEXUAL -> {
           Color[] pal = { c(0x000000), c(0xA4A4A4), c(0xFFFFFF), c(0x800080) };
-          return cyclePalette(pal, 2.0);
+          return cycle(skin, 2.0, pal);
         }
         case AROMANTIC -> {
           Color[] pal = { c(0x3DA542), c(0xA7D379), c(0xFFFFFF), c(0xA9A9A9), c(0x000000) };
-          return cyclePalette(pal, 2.4);
+          return cycle(skin, 2.4, pal);
         }
         case GENDERFLUID -> {
           Color[] pal = { c(0xFF75A2), c(0xFFFFFF), c(0xBE18D6), c(0x000000), c(0x333EB4) };
-          return cyclePalette(pal, 2.4);
+          return cycle(skin, 2.4, pal);
         }
         case INTERSEX -> {
           Color[] pal = { c(0xFFDD00), c(0x7A00AC) };
-          return cyclePalette(pal, 1.4);
+          return cycle(skin, 1.4, pal);
         }
         case SOLAR -> {
-          return c(0xFFB200);
+          return new Color[] { c(0xFFB200) };
         }
         case SILVER -> {
-          return c(0xEDEDED);
-        }
-        case GOLD -> {
-          float t = (System.nanoTime() / 1_000_000_000f) * 0.45f;
-          float b = 0.88f + 0.10f * (float) Math.sin(t * (float) Math.PI * 2);
-          return Color.getHSBColor(0.12f, 0.85f, b);
+          return new Color[] { c(0xEDEDED) };
         }
         case PRIDE -> {
           Color[] pal = { c(0xE40303), c(0xFF8C00), c(0xFFED00), c(0x008026), c(0x004DFF), c(0x750787) };
-          return cyclePalette(pal, 2.4);
+          return cycle(skin, 2.4, pal);
         }
 
         // New bases: subtle shimmer between dark -> base -> light
         case CRIMSON -> {
           Color b = c(0xE53935);
-          return cyclePalette(new Color[] { darken(b, 0.25f), b, lighten(b, 0.22f) }, 2.0);
+          return cycle(skin, 2.0, new Color[] { darken(b, 0.25f), b, lighten(b, 0.22f) });
         }
         case ORANGE -> {
           Color b = c(0xFF8C00);
-          return cyclePalette(new Color[] { darken(b, 0.20f), b, lighten(b, 0.18f) }, 1.9);
+          return cycle(skin, 1.9, new Color[] { darken(b, 0.20f), b, lighten(b, 0.18f) });
         }
         case LIME -> {
           Color b = c(0xB8FF00);
-          return cyclePalette(new Color[] { darken(b, 0.15f), b, lighten(b, 0.15f) }, 1.8);
+          return cycle(skin, 1.8, new Color[] { darken(b, 0.15f), b, lighten(b, 0.15f) });
         }
         case EMERALD -> {
           Color b = c(0x2ECC71);
-          return cyclePalette(new Color[] { darken(b, 0.18f), b, lighten(b, 0.20f) }, 2.1);
+          return cycle(skin, 2.1, new Color[] { darken(b, 0.18f), b, lighten(b, 0.20f) });
         }
         case TEAL -> {
           Color b = c(0x14B8A6);
-          return cyclePalette(new Color[] { darken(b, 0.18f), b, lighten(b, 0.18f) }, 2.0);
+          return cycle(skin, 2.0, new Color[] { darken(b, 0.18f), b, lighten(b, 0.18f) });
         }
         case CYAN -> {
           Color b = c(0x00E5FF);
-          return cyclePalette(new Color[] { darken(b, 0.12f), b, lighten(b, 0.12f) }, 1.7);
+          return cycle(skin, 1.7, new Color[] { darken(b, 0.12f), b, lighten(b, 0.12f) });
         }
         case COBALT -> {
           Color b = c(0x0047AB);
-          return cyclePalette(new Color[] { darken(b, 0.20f), b, lighten(b, 0.25f) }, 2.2);
+          return cycle(skin, 2.2, new Color[] { darken(b, 0.20f), b, lighten(b, 0.25f) });
         }
         case VIOLET -> {
           Color b = c(0x7C4DFF);
-          return cyclePalette(new Color[] { darken(b, 0.18f), b, lighten(b, 0.22f) }, 2.0);
+          return cycle(skin, 2.0, new Color[] { darken(b, 0.18f), b, lighten(b, 0.22f) });
         }
         case PINK -> {
           Color b = c(0xFF5DA8);
-          return cyclePalette(new Color[] { darken(b, 0.12f), b, lighten(b, 0.18f) }, 1.9);
+          return cycle(skin, 1.9, new Color[] { darken(b, 0.12f), b, lighten(b, 0.18f) });
         }
         case MIDNIGHT -> {
           Color b = c(0x0B1226);
-          return cyclePalette(new Color[] { b, lighten(b, 0.20f), b }, 2.3);
+          return cycle(skin, 2.3, new Color[] { b, lighten(b, 0.20f), b });
         }
 
         default -> {
-          return c(0xFF2BBF);
+          return new Color[] { c(0xFF2BBF) };
         } // MAIN fallback
       }
     }
 
+    // Smooth loop through the stops, one stop per 1/len of the period.
+    private static Color[] cycle(Skin skin, double secondsPerLoop, Color[] pal) {
+      APPLE_SPEED[skin.ordinal()] = 1.0 / secondsPerLoop;
+      return ramp(p -> {
+        double pos = p * pal.length;
+        int i = (int) Math.floor(pos) % pal.length;
+        int j = (i + 1) % pal.length;
+        return lerp(pal[i], pal[j], smooth01((float) (pos - Math.floor(pos))));
+      });
+    }
+
     public Color snakeBodyColor(int idx) {
       return snakeBodyColor(skin, idx);
     }
 
     public static Color snakeBodyColor(Skin skin, int idx) {
+      return BODY[skin.ordinal()][bodyIndex(skin, idx)];
+    }
+
+    /** Index of segment {@code idx} into bodyTable(skin) for the current frame. */
+    public static int bodyIndex(Skin skin, int idx) {
+      int o = skin.ordinal();
+      double speed = BODY_SPEED[o];
+      if (speed == 0)
+        return Math.floorMod(idx, BODY[o].length);
+      return rampIndex(seconds() * speed + idx * BODY_STEP[o]);
+    }
+
+    public static int bodyArgb(Skin skin, int idx) {
+      return BODY_ARGB[skin.ordinal()][bodyIndex(skin, idx)];
+    }
+
+    /** The shared body table (int ARGB; do not modify): one period of bands, or a RAMP. */
+    static int[] bodyTable(Skin skin) {
+      return BODY_ARGB[skin.ordinal()];
+    }
+
+    // Body bands by segment index, or a ramp (BODY_SPEED/BODY_STEP get its phase rates).
+    private static Color[] compileBody(Skin skin) {
       switch (skin) {
         case RAINBOW -> {
-          float base = (System.nanoTime() / 1_000_000_000f) * 0.12f;
-          float h = (base + idx * 0.06f) % 1f;
-          return Color.getHSBColor(h, 0.85f, 1f);
-        }
-        case TRANS -> {
-          Color[] bands = { c(0x5bcffa), c(0xf5a9b8), c(0xffffff), c(0xf5a9b8), c(0x5bcffa) };
-          return bands[Math.floorMod(idx, bands.length)];
+          return wave(skin, 0.12, 0.06, p -> Color.getHSBColor((float) p, 0.85f, 1f));
         }
         case SOLAR -> {
-          float t = (System.nanoTime() / 1_000_000_000f) * 0.10f;
-          float h = 0.10f + 0.055f * (float) Math.sin((t + idx * 0.18f) * Math.PI * 2);
-          return Color.getHSBColor(h, 0.95f, 1f);
+          return wave(skin, 0.10, 0.18,
+              p -> Color.getHSBColor(0.10f + 0.055f * (float) Math.sin(p * Math.PI * 2), 0.95f, 1f));
         }
         case SILVER -> {
-          float t = (System.nanoTime() / 1_000_000_000f) * 0.5f;
-          float b = 0.75f + 0.20f * (float) Math.sin((t + idx * 0.15f) * Math.PI * 2);
-          return Color.getHSBColor(0f, 0f, b);
+          return wave(skin, 0.5, 0.15, p -> Color.getHSBColor(0f, 0f, 0.75f + 0.20f * (float) Math.sin(p * Math.PI * 2)));
         }
         case GOLD -> {
-          float t = (System.nanoTime() / 1_000_000_000f) * 0.55f;
-          float b = 0.78f + 0.18f * (float) Math.sin((t + idx * 0.12f) * (float) Math.PI * 2);
-          return Color.getHSBColor(0.12f, 0.85f, b);
+          return wave(skin, 0.55, 0.12,
+              p -> Color.getHSBColor(0.12f, 0.85f, 0.78f + 0.18f * (float) Math.sin(p * Math.PI * 2)));
+        }
+        case TRANS -> {
+          return new Color[] { c(0x5bcffa), c(0xf5a9b8), c(0xffffff), c(0xf5a9b8), c(0x5bcffa) };
         }
         case LESBIAN -> {
-          Color[] b = { c(0xD52D00), c(0xFF9A56), c(0xFFFFFF), c(0xD362A4), c(0xA30262) };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { c(0xD52D00), c(0xFF9A56), c(0xFFFFFF), c(0xD362A4), c(0xA30262) };
         }
         case BI -> {
-          Color[] b = { c(0xD60270), c(0xD60270), c(0x9B4F96), c(0x0038A8), c(0x0038A8) };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { c(0xD60270), c(0xD60270), c(0x9B4F96), c(0x0038A8), c(0x0038A8) };
         }
         case PAN -> {
-          Color[] b = { c(0xFF218C), c(0xFFD800), c(0x21B1FF) };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { c(0xFF218C), c(0xFFD800), c(0x21B1FF) };
         }
         case NONBINARY -> {
-          Color[] b = { c(0xFCF434), c(0xFFFFFF), c(0x9C59D1), c(0x2C2C2C) };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { c(0xFCF434), c(0xFFFFFF), c(0x9C59D1), c(0x2C2C2C) };
         }
         case ASEXUAL -> {
-          Color[] b = { c(0x000000), c(0xA4A4A4), c(0xFFFFFF), c(0x800080) };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { c(0x000000), c(0xA4A4A4), c(0xFFFFFF), c(0x800080) };
         }
         case AROMANTIC -> {
-          Color[] b = { c(0x3DA542), c(0xA7D379), c(0xFFFFFF), c(0xA9A9A9), c(0x000000) };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { c(0x3DA542), c(0xA7D379), c(0xFFFFFF), c(0xA9A9A9), c(0x000000) };
         }
         case GENDERFLUID -> {
-          Color[] b = { c(0xFF75A2), c(0xFFFFFF), c(0xBE18D6), c(0x000000), c(0x333EB4) };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { c(0xFF75A2), c(0xFFFFFF), c(0xBE18D6), c(0x000000), c(0x333EB4) };
         }
         case INTERSEX -> {
-          Color[] b = { c(0xFFDD00), c(0x7A00AC) };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { c(0xFFDD00), c(0x7A00AC) };
         }
         case PRIDE -> {
-          Color[] b = { c(0xE40303), c(0xFF8C00), c(0xFFED00), c(0x008026), c(0x004DFF), c(0x750787) };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { c(0xE40303), c(0xFF8C00), c(0xFFED00), c(0x008026), c(0x004DFF), c(0x750787) };
         }
 
         // New bases: repeating dark -> base -> light -> base bands
         case CRIMSON -> {
           Color base = c(0xE53935);
-          Color[] b = { darken(base, 0.25f), base, lighten(base, 0.20f), base };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { darken(base, 0.25f), base, lighten(base, 0.20f), base };
         }
         case ORANGE -> {
           Color base = c(0xFF8C00);
-          Color[] b = { darken(base, 0.20f), base, lighten(base, 0.18f), base };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { darken(base, 0.20f), base, lighten(base, 0.18f), base };
         }
         case LIME -> {
           Color base = c(0xB8FF00);
-          Color[] b = { darken(base, 0.15f), base, lighten(base, 0.15f), base };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { darken(base, 0.15f), base, lighten(base, 0.15f), base };
         }
         case EMERALD -> {
           Color base = c(0x2ECC71);
-          Color[] b = { darken(base, 0.18f), base, lighten(base, 0.20f), base };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { darken(base, 0.18f), base, lighten(base, 0.20f), base };
         }
         case TEAL -> {
           Color base = c(0x14B8A6);
-          Color[] b = { darken(base, 0.18f), base, lighten(base, 0.18f), base };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { darken(base, 0.18f), base, lighten(base, 0.18f), base };
         }
         case CYAN -> {
           Color base = c(0x00E5FF);
-          Color[] b = { darken(base, 0.12f), base, lighten(base, 0.12f), base };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { darken(base, 0.12f), base, lighten(base, 0.12f), base };
         }
         case COBALT -> {
           Color base = c(0x0047AB);
-          Color[] b = { darken(base, 0.20f), base, lighten(base, 0.25f), base };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { darken(base, 0.20f), base, lighten(base, 0.25f), base };
         }
         case VIOLET -> {
           Color base = c(0x7C4DFF);
-          Color[] b = { darken(base, 0.18f), base, lighten(base, 0.22f), base };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { darken(base, 0.18f), base, lighten(base, 0.22f), base };
         }
         case PINK -> {
           Color base = c(0xFF5DA8);
-          Color[] b = { darken(base, 0.12f), base, lighten(base, 0.18f), base };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { darken(base, 0.12f), base, lighten(base, 0.18f), base };
         }
         case MIDNIGHT -> {
           Color base = c(0x0B1226);
-          Color[] b = { base, lighten(base, 0.20f), base, darken(base, 0.10f) };
-          return b[Math.floorMod(idx, b.length)];
+          return new Color[] { base, lighten(base, 0.20f), base, darken(base, 0.10f) };
         }
 
         default -> {
-          return c(0x8c00ff);
+          return new Color[] { c(0x8c00ff) };
         } // MAIN
       }
     }
 
+    private static Color[] wave(Skin skin, double speed, double step, DoubleFunction<Color> f) {
+      BODY_SPEED[skin.ordinal()] = speed;
+      BODY_STEP[skin.ordinal()] = step;
+      return ramp(f);
+    }
+
+    /** Apple colour cycles over time (all but MAIN, SOLAR and SILVER). */
+    public static boolean appleAnimated(Skin skin) {
+      return APPLE_SPEED[skin.ordinal()] != 0;
+    }
+
+    /** Body colour depends on the segment index: every move recolours the whole snake. */
+    public static boolean bodyBanded(Skin skin) {
+      return skin != Skin.MAIN;
+    }
+
+    /** Body colour also moves with time: the snake changes every frame. */
+    public static boolean bodyAnimated(Skin skin) {
+      return BODY_SPEED[skin.ordinal()] != 0;
+    }
+
     public Color snakeHeadColor() {
       return snakeHeadColor(skin);
     }
 
     public static Color snakeHeadColor(Skin skin) {
+      return HEAD[skin.ordinal()];
+    }
+
+    private static Color compileHead(Skin skin) {
       return switch (skin) {
         case RAINBOW -> Color.WHITE;
         case TRANS -> c(0xffffff);
@@ -547,6 +627,14 @@ public final class Skins {
     }
   }
 
+  // -------------------- time ---------------------------
+  // Animated skins read this; the panel points it at its per-frame clock.
+  private static GameClock clock = GameClock.SYSTEM;
+
+  public static void setClock(GameClock c) {
+    clock = (c != null) ? c : GameClock.SYSTEM;
+  }
+
   // -------------------- color helpers --------------------
   private static Color c(int hex) {
     return new Color(hex);
@@ -565,15 +653,27 @@ public final class Skins {
     return 0.5f - 0.5f * (float) Math.cos(x * Math.PI);
   }
 
-  private static Color cyclePalette(Color[] pal, double secondsPerLoop) {
-    if (pal == null || pal.length == 0)
-      return c(0xff2bbf);
-    double t = (System.nanoTime() / 1_000_000_000.0) / secondsPerLoop;
-    double pos = t * pal.length;
-    int i = (int) Math.floor(pos) % pal.length;
-    int j = (i + 1) % pal.length;
-    float k = smooth01((float) (pos - Math.floor(pos)));
-    return lerp(pal[i], pal[j], k);
+  // f sampled at RAMP evenly spaced phases in [0, 1)
+  private static Color[] ramp(DoubleFunction<Color> f) {
+    Color[] out = new Color[Manager.RAMP];
+    for (int k = 0; k < out.length; k++)
+      out[k] = f.apply(k / (double) out.length);
+    return out;
+  }
+
+  private static int rampIndex(double phase) {
+    return (int) ((phase - Math.floor(phase)) * Manager.RAMP) & (Manager.RAMP - 1);
+  }
+
+  private static double seconds() {
+    return clock.nanos() / 1_000_000_000.0;
+  }
+
+  private static int[] argb(Color[] cs) {
+    int[] out = new int[cs.length];
+    for (int i = 0; i < cs.length; i++)
+      out[i] = cs[i].getRGB();
+    return out;
   }
 
   private static Color lighten(Color base, float amt) {
@@ -1,9 +1,205 @@
 package Anesk;
 
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pre-rasterized board tiles, one atlas image per (skin, tile size).
+ * - Grid of t x t tiles, COLS per row: head, flashed head, wall, bonus, then
+ *   one apple tile per entry of the skin's apple table and one body tile per
+ *   entry of its body table (repeating bands, or a hue/brightness ramp)
+ * - Drawn with the same antialiased shapes the panel used to fill per cell,
+ *   so painting a cell becomes a single drawImage blit
+ * - Animated skins pick the ramp tile for the current frame time
+ *   (Skins.Manager.bodyIndex/appleIndex), so they blit like static ones
+ * - loadAll() warms every skin at Config.TILE; other sizes build on first use,
+ *   and trim() drops them again once the view has settled on another size
+ * - Images are compatible with the panel's screen; invalidate() drops every
+ *   atlas when the settled view lands on another one
+ * - pixels() reads an atlas back once for RasterBoard's software path
+ */
 public final class SpriteBank {
+  private static final int HEAD = 0, HEAD_FLASH = 1, WALL = 2, BONUS = 3, APPLE = 4;
+  private static final int COLS = 32; // tiles per atlas row
+
+  private static final Map<Long, Atlas> CACHE = new HashMap<>();
+  private static Atlas last; // most recent get(), checked first
+  private static volatile GraphicsConfiguration screen; // the panel's, once settled
+
   public static void loadAll() {
+    for (Skins.Skin s : Skins.Skin.values())
+      get(s, Config.TILE);
+  }
+
+  /** Atlas for a skin at a tile size (built and cached on first request). */
+  public static synchronized Atlas get(Skins.Skin skin, int tile) {
+    Atlas a = last;
+    if (a != null && a.skin == skin && a.tile == tile)
+      return a;
+    a = CACHE.computeIfAbsent(((long) skin.ordinal() << 32) | tile, k -> new Atlas(skin, tile));
+    last = a;
+    return a;
+  }
+
+  /** Drop atlases of every size but {@code tile} and the preloaded Config.TILE. */
+  public static synchronized void trim(int tile) {
+    CACHE.values().removeIf(a -> a.tile != tile && a.tile != Config.TILE);
+    if (last != null && last.tile != tile)
+      last = null;
+  }
+
+  /** Build images for {@code gc} from now on; a new screen drops every atlas. */
+  public static synchronized void invalidate(GraphicsConfiguration gc) {
+    GraphicsConfiguration was = screen;
+    if (gc == null || gc == was)
+      return;
+    screen = gc;
+    if (was == null && gc == gc.getDevice().getDefaultConfiguration()
+        && gc.getDevice() == GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice())
+      return; // loadAll() already built for it
+    CACHE.clear();
+    last = null;
   }
 
-  public static void load(String path) {
-    /* optional */ }
+  /* ------------------------- Atlas -------------------------- */
+  public static final class Atlas {
+    public final Skins.Skin skin;
+    public final int tile;
+    private final BufferedImage img;
+    private final int body; // first body slot
+    private volatile int[] pixels; // premultiplied ARGB copy of img, on demand
+
+    Atlas(Skins.Skin skin, int t) {
+      this.skin = skin;
+      this.tile = t;
+      int[] apples = Skins.Manager.appleTable(skin), bands = Skins.Manager.bodyTable(skin);
+      this.body = APPLE + apples.length;
+      int slots = body + bands.length;
+      img = compatibleImage(t * Math.min(slots, COLS), t * ((slots + COLS - 1) / COLS));
+
+      Graphics2D g = img.createGraphics();
+      try {
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        segment(g, HEAD, Skins.Manager.snakeHeadColor(skin));
+        segment(g, HEAD_FLASH, Config.APPLE);
+        for (int i = 0; i < bands.length; i++)
+          segment(g, body + i, new Color(bands[i], true));
+
+        int in = t / 8, arc = Math.min(6, t / 4);
+        g.setColor(Config.WALL);
+        g.fillRoundRect(slotX(WALL) + in, slotY(WALL) + in, t - 2 * in, t - 2 * in, arc, arc);
+
+        int cx = slotX(BONUS) + t / 2, cy = slotY(BONUS) + t / 2, r = t / 2 - in;
+        g.setColor(Config.BONUS);
+        g.fillPolygon(new int[] { cx, cx + r, cx, cx - r }, new int[] { cy - r, cy, cy + r, cy }, 4);
+
+        for (int i = 0; i < apples.length; i++) {
+          g.setColor(new Color(apples[i], true));
+          g.fillOval(slotX(APPLE + i) + in, slotY(APPLE + i) + in, t - 2 * in, t - 2 * in);
+        }
+      } finally {
+        g.dispose();
+      }
+    }
+
+    // Rounded body piece, inset t/13 on each side
+    private void segment(Graphics2D g, int slot, Color c) {
+      int t = tile, in = Math.max(1, t / 13), arc = Math.min(6, t / 4);
+      g.setColor(c);
+      g.fillRoundRect(slotX(slot) + in, slotY(slot) + in, t - 2 * in, t - 2 * in, arc, arc);
+    }
+
+    int slotX(int slot) {
+      return (slot % COLS) * tile;
+    }
+
+    int slotY(int slot) {
+      return (slot / COLS) * tile;
+    }
+
+    /* Slots, for callers that queue tiles (RasterBoard) instead of drawing */
+    int headSlot(boolean flash) {
+      return flash ? HEAD_FLASH : HEAD;
+    }
+
+    int bodySlot(int idx) {
+      return body + Skins.Manager.bodyIndex(skin, idx);
+    }
+
+    int wallSlot() {
+      return WALL;
+    }
+
+    int bonusSlot() {
+      return BONUS;
+    }
+
+    int appleSlot() {
+      return APPLE + Skins.Manager.appleIndex(skin);
+    }
+
+    /** Body segment {@code idx} (0 = head) with its top-left at (x, y). */
+    public void drawBody(Graphics g, int idx, int x, int y) {
+      blit(g, bodySlot(idx), x, y);
+    }
+
+    public void drawHead(Graphics g, boolean flash, int x, int y) {
+      blit(g, headSlot(flash), x, y);
+    }
+
+    public void drawWall(Graphics g, int x, int y) {
+      blit(g, WALL, x, y);
+    }
+
+    public void drawBonus(Graphics g, int x, int y) {
+      blit(g, BONUS, x, y);
+    }
+
+    public void drawApple(Graphics g, int x, int y) {
+      blit(g, appleSlot(), x, y);
+    }
+
+    /** The tile in {@code slot} with its top-left at (x, y). */
+    void blit(Graphics g, int slot, int x, int y) {
+      int sx = slotX(slot), sy = slotY(slot);
+      g.drawImage(img, x, y, x + tile, y + tile, sx, sy, sx + tile, sy + tile, null);
+    }
+
+    /** The atlas as premultiplied ARGB, pixelsWidth() per row (read back on first call). */
+    int[] pixels() {
+      int[] p = pixels;
+      if (p == null) {
+        int w = img.getWidth(), h = img.getHeight();
+        p = img.getRGB(0, 0, w, h, null, 0, w);
+        for (int i = 0; i < p.length; i++) {
+          int c = p[i], a = c >>> 24;
+          if (a != 0xFF)
+            p[i] = a << 24 | ((c >> 16 & 0xFF) * a + 127) / 255 << 16 | ((c >> 8 & 0xFF) * a + 127) / 255 << 8
+                | ((c & 0xFF) * a + 127) / 255;
+        }
+        pixels = p;
+      }
+      return p;
+    }
+
+    int pixelsWidth() {
+      return img.getWidth();
+    }
+  }
+
+  /* ------------------------ Helpers ------------------------- */
+  static BufferedImage compatibleImage(int w, int h) {
+    if (!GraphicsEnvironment.isHeadless()) {
+      try {
+        GraphicsConfiguration gc = screen;
+        if (gc == null)
+          gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        return gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+      } catch (Exception ignore) {
+      }
+    }
+    return new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+  }
 }
@@ -0,0 +1,148 @@
+package Anesk;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Deadline-based tick thread (replaces javax.swing.Timer for game ticks).
+ * - Periods are in nanoseconds, so sub-millisecond / turbo cadences work
+ * - Sleeps with parkNanos, then spins the last stretch; the spin margin
+ *   adapts to how late park() actually wakes up on this machine
+ * - Deadlines advance by the period (no drift); missed ones run back-to-back,
+ *   and a backlog beyond MAX_LAG_TICKS is dropped instead of replayed
+ * - Every tick's actual interval and its error vs the target are recorded
+ */
+public final class TickScheduler {
+  /** Fastest cadence offered by the "turbo" toggle. */
+  public static final long TURBO_PERIOD_NS = 1_000_000L;
+
+  private static final long MIN_PERIOD_NS = 100_000L; // 0.1 ms
+  private static final int MAX_LAG_TICKS = 5;
+  private static final long MIN_SPIN_NS = 50_000L;
+  private static final long MAX_SPIN_NS = 2_000_000L;
+
+  private final String name;
+  private final TimingRing intervals = new TimingRing(1024); // actual tick-to-tick ns
+  private final TimingRing jitter = new TimingRing(1024); // |actual - target| ns
+  private volatile Worker worker;
+  private volatile long lastTickNs;
+
+  public TickScheduler(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Start ticking immediately. {@code periodNs} is re-read after every tick;
+   * the loop ends when {@code tick} returns false or stop() is called.
+   */
+  public synchronized void start(LongSupplier periodNs, BooleanSupplier tick) {
+    stop();
+    Worker w = new Worker(periodNs, tick);
+    Thread t = new Thread(w, name);
+    t.setDaemon(true);
+    w.thread = t;
+    worker = w;
+    t.start();
+  }
+
+  public synchronized void stop() {
+    Worker w = worker;
+    if (w == null)
+      return;
+    w.running = false;
+    LockSupport.unpark(w.thread);
+    worker = null;
+  }
+
+  public boolean isRunning() {
+    Worker w = worker;
+    return w != null && w.running;
+  }
+
+  /**
+   * True when called from the current worker and it has not been stopped.
+   * stop() does not wait for the thread, so a tick callback that blocked on a
+   * lock meanwhile should check this once it holds the lock.
+   */
+  public boolean isCurrentWorker() {
+    Worker w = worker;
+    return w != null && w.running && w.thread == Thread.currentThread();
+  }
+
+  /** System.nanoTime() of the most recent tick. */
+  public long lastTickNanos() {
+    return lastTickNs;
+  }
+
+  public TimingRing intervals() {
+    return intervals;
+  }
+
+  public TimingRing jitter() {
+    return jitter;
+  }
+
+  /* ------------------------ Worker -------------------------- */
+  private final class Worker implements Runnable {
+    private final LongSupplier periodNs;
+    private final BooleanSupplier tick;
+    volatile boolean running = true;
+    Thread thread;
+    private long spinNs = 200_000L;
+
+    Worker(LongSupplier periodNs, BooleanSupplier tick) {
+      this.periodNs = periodNs;
+      this.tick = tick;
+    }
+
+    @Override
+    public void run() {
+      long deadline = System.nanoTime();
+      long prev = 0, target = 0;
+      while (running) {
+        waitUntil(deadline);
+        if (!running)
+          break;
+
+        long now = System.nanoTime();
+        if (prev != 0) {
+          long actual = now - prev;
+          intervals.add(actual);
+          jitter.add(Math.abs(actual - target));
+        }
+        prev = now;
+        lastTickNs = now;
+
+        if (!tick.getAsBoolean())
+          break;
+
+        target = Math.max(MIN_PERIOD_NS, periodNs.getAsLong());
+        deadline += target;
+        long after = System.nanoTime();
+        if (after - deadline > MAX_LAG_TICKS * target)
+          deadline = after; // too far behind: re-anchor rather than burst
+      }
+      running = false;
+    }
+
+    private void waitUntil(long deadline) {
+      for (;;) {
+        long left = deadline - System.nanoTime();
+        if (left <= 0 || !running)
+          return;
+        if (left > spinNs) {
+          long ask = left - spinNs;
+          long t0 = System.nanoTime();
+          LockSupport.parkNanos(ask);
+          long over = (System.nanoTime() - t0) - ask;
+          // keep ~2x the typical oversleep as spin margin
+          spinNs += (2 * Math.max(0, over) - spinNs) / 8;
+          spinNs = Math.max(MIN_SPIN_NS, Math.min(MAX_SPIN_NS, spinNs));
+        } else {
+          Thread.onSpinWait();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package Anesk;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring of long samples (usually nanoseconds).
+ * add() is allocation-free and safe to call from one writer thread;
+ * the summary queries copy the window and are meant for occasional reads
+ * (dev tools, overlays), where a torn sample or two does not matter.
+ */
+public final class TimingRing {
+  private final long[] buf;
+  private volatile long count; // total samples ever added
+
+  public TimingRing(int capacity) {
+    buf = new long[capacity];
+  }
+
+  public void add(long v) {
+    long n = count;
+    buf[(int) (n % buf.length)] = v;
+    count = n + 1;
+  }
+
+  public void clear() {
+    count = 0;
+  }
+
+  /** Samples currently in the window (≤ capacity). */
+  public int size() {
+    return (int) Math.min(count, buf.length);
+  }
+
+  /** Most recent sample, or 0 if empty. */
+  public long last() {
+    long n = count;
+    return (n == 0) ? 0 : buf[(int) ((n - 1) % buf.length)];
+  }
+
+  public long mean() {
+    int n = size();
+    if (n == 0)
+      return 0;
+    long sum = 0;
+    for (int i = 0; i < n; i++)
+      sum += buf[i];
+    return sum / n;
+  }
+
+  public long max() {
+    int n = size();
+    long m = 0;
+    for (int i = 0; i < n; i++)
+      m = Math.max(m, buf[i]);
+    return m;
+  }
+
+  /** Nearest-rank percentile, p in 0..100. */
+  public long percentile(double p) {
+    int n = size();
+    if (n == 0)
+      return 0;
+    long[] sorted = Arrays.copyOf(buf, n);
+    Arrays.sort(sorted);
+    int rank = (int) Math.ceil(p / 100.0 * n) - 1;
+    return sorted[Math.max(0, Math.min(n - 1, rank))];
+  }
+}
@@ -5,16 +5,21 @@ import java.awt.Color;
 final class Toast {
   final String text;
   final Color accent;
-  final long t0 = System.nanoTime();
+  final Color rim; // accent at the outline alpha
+  final GameClock clock;
+  final long t0;
   final int ms;
 
-  Toast(String text, Color accent, int ms) {
+  Toast(String text, Color accent, int ms, GameClock clock) {
     this.text = text;
     this.accent = accent;
+    this.rim = new Color(accent.getRed(), accent.getGreen(), accent.getBlue(), 230);
     this.ms = ms;
+    this.clock = clock;
+    this.t0 = clock.nanos();
   }
 
   int ageMs() {
-    return (int)((System.nanoTime() - t0) / 1_000_000L);
+    return (int)((clock.nanos() - t0) / 1_000_000L);
   }
 }
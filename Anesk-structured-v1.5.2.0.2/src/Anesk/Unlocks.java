@@ -0,0 +1,153 @@
+package Anesk;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Data-driven skin unlocks (assets/unlocks.txt).
+ * - Each row: skin, score threshold, level threshold, HUD flash ticks;
+ *   a skin unlocks when either threshold is reached
+ * - Compiled into two ascending threshold arrays with a cursor each, so a
+ *   check compares against the next pending threshold only; rows that were
+ *   already unlocked are skipped when their cursor passes them
+ * - Not thread-safe: Anesk calls it with the game monitor held
+ */
+public final class Unlocks {
+  private static final int NONE = Integer.MAX_VALUE;
+
+  public static final class Entry {
+    public final Skins.Skin skin;
+    public final int score, level, flash; // NONE = no threshold
+
+    Entry(Skins.Skin skin, int score, int level, int flash) {
+      this.skin = skin;
+      this.score = score;
+      this.level = level;
+      this.flash = flash;
+    }
+  }
+
+  /** Receives reached entries; return false to retry on a later check. */
+  public interface Sink {
+    boolean unlock(Entry e);
+  }
+
+  private final Entry[] entries;
+  private final int[] scoreAt, scoreIdx; // ascending thresholds -> entry
+  private final int[] levelAt, levelIdx;
+  private final boolean[] done;
+  private int scoreCur, levelCur;
+
+  Unlocks(List<Entry> list) {
+    entries = list.toArray(new Entry[0]);
+    done = new boolean[entries.length];
+    scoreIdx = sortedBy(e -> e.score);
+    levelIdx = sortedBy(e -> e.level);
+    scoreAt = new int[scoreIdx.length];
+    levelAt = new int[levelIdx.length];
+    for (int i = 0; i < scoreIdx.length; i++)
+      scoreAt[i] = entries[scoreIdx[i]].score;
+    for (int i = 0; i < levelIdx.length; i++)
+      levelAt[i] = entries[levelIdx[i]].level;
+  }
+
+  // Indices of entries that have this threshold, sorted by it (stable: file order on ties)
+  private int[] sortedBy(ToIntFunction<Entry> key) {
+    return IntStream.range(0, entries.length)
+        .filter(i -> key.applyAsInt(entries[i]) != NONE)
+        .boxed()
+        .sorted(Comparator.comparingInt(i -> key.applyAsInt(entries[i])))
+        .mapToInt(Integer::intValue)
+        .toArray();
+  }
+
+  /* ------------------------- Loading ------------------------ */
+  /** Classpath first, then the loose file; a missing table means no unlocks. */
+  public static Unlocks load(String resourcePath) {
+    InputStream in = Unlocks.class.getResourceAsStream(resourcePath);
+    try {
+      if (in == null)
+        in = new FileInputStream(resourcePath.startsWith("/") ? resourcePath.substring(1) : resourcePath);
+    } catch (FileNotFoundException e) {
+      System.err.println("[Unlocks] " + resourcePath + " not found; no unlocks");
+      return new Unlocks(List.of());
+    }
+    try (BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      return parse(br, resourcePath);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to read " + resourcePath, e);
+    }
+  }
+
+  static Unlocks parse(BufferedReader br, String name) throws IOException {
+    List<Entry> list = new ArrayList<>();
+    int lineNo = 0;
+    for (String line; (line = br.readLine()) != null;) {
+      lineNo++;
+      String t = line.trim();
+      if (t.isEmpty() || t.startsWith(";") || t.startsWith("//"))
+        continue;
+      String[] f = t.split("\\s+");
+      if (f.length < 3)
+        throw new IllegalArgumentException(name + ":" + lineNo + ": expected skin score level [flash]");
+      Skins.Skin skin;
+      try {
+        skin = Skins.Skin.valueOf(f[0].toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+        System.err.println("[Unlocks] " + name + ":" + lineNo + ": unknown skin " + f[0] + ", skipped");
+        continue;
+      }
+      int flash = (f.length > 3) ? Integer.parseInt(f[3]) : 14;
+      list.add(new Entry(skin, threshold(f[1]), threshold(f[2]), flash));
+    }
+    return new Unlocks(list);
+  }
+
+  private static int threshold(String s) {
+    return s.equals("-") ? NONE : Integer.parseInt(s);
+  }
+
+  /* -------------------------- State ------------------------- */
+  /** Forget progress: rows whose skin is already unlocked stay done. */
+  public void rearm(Predicate<Skins.Skin> unlocked) {
+    for (int i = 0; i < entries.length; i++)
+      done[i] = unlocked.test(entries[i].skin);
+    scoreCur = levelCur = 0;
+  }
+
+  /** A new run starts from score 0 (level carries over). */
+  public void newRun() {
+    scoreCur = 0;
+  }
+
+  /** Hand every newly reached entry to the sink; O(1) when nothing is due. */
+  public void check(int score, int level, Sink sink) {
+    while (scoreCur < scoreAt.length && score >= scoreAt[scoreCur]) {
+      if (!fire(scoreIdx[scoreCur], sink))
+        return;
+      scoreCur++;
+    }
+    while (levelCur < levelAt.length && level >= levelAt[levelCur]) {
+      if (!fire(levelIdx[levelCur], sink))
+        return;
+      levelCur++;
+    }
+  }
+
+  private boolean fire(int i, Sink sink) {
+    if (done[i])
+      return true;
+    if (!sink.unlock(entries[i]))
+      return false;
+    done[i] = true;
+    return true;
+  }
+
+  public int size() {
+    return entries.length;
+  }
+}